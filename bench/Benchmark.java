@@ -0,0 +1,245 @@
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Medições de desempenho dos pontos mais usados da simulação:
+ * Simulator.simulateOneStep, Field.findAdjacent, Field.freeAdjacentLocation
+ * e a contagem completa de FieldStats.
+ *
+ * Cada medição roda um aquecimento e depois repete a operação durante um
+ * tempo fixo, relatando operações por segundo e bytes alocados por operação
+ * (medidos pela JVM para a thread atual). Os passos da simulação são
+ * medidos em amostras de até SAMPLE_STEPS passos, cada uma a partir do mesmo
+ * estado inicial (reset com a semente fixa), para que a medição não dependa
+ * de quanto a população já mudou. Use:
+ *
+ * java -cp bin Benchmark [--sizes 50,200,1000,4000] [--densities 0.1,0.5,0.9]
+ * [--maps src/mapas] [--time 1000]
+ *
+ * @author GRUPO 05
+ * @version 2025
+ */
+public class Benchmark {
+    /** Semente fixa para que as medições sejam comparáveis entre versões. */
+    private static final long SEED = 42;
+    /** Passos de cada amostra de simulateOneStep, a partir do reset. */
+    private static final int SAMPLE_STEPS = 25;
+    /** Tamanho máximo do lote entre duas leituras do relógio. */
+    private static final int MAX_BATCH = 1024;
+
+    /** Lados dos campos medidos (campos quadrados). */
+    private int[] sizes = { 50, 200, 1000 };
+    /** Frações de células ocupadas nas medições de Field. */
+    private double[] densities = { 0.1, 0.5, 0.9 };
+    /** Pasta com os mapas de pedras. */
+    private String mapsDir = "src/mapas";
+    /** Duração de cada medição (e do aquecimento), em milissegundos. */
+    private long timeMillis = 1000;
+    /** Acumula resultados para que o compilador não elimine as operações. */
+    private static long sink;
+
+    /** Uma operação a ser medida. */
+    private interface Operation {
+        /** Executa a operação uma vez e retorna um valor qualquer. */
+        long run();
+    }
+
+    public static void main(String[] args) {
+        Benchmark benchmark = new Benchmark();
+        benchmark.parse(args);
+        benchmark.runAll();
+    }
+
+    /**
+     * Lê as opções da linha de comando.
+     */
+    private void parse(String[] args) {
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--sizes":
+                    sizes = Arrays.stream(args[i + 1].split(",")).mapToInt(Integer::parseInt).toArray();
+                    break;
+                case "--densities":
+                    densities = Arrays.stream(args[i + 1].split(",")).mapToDouble(Double::parseDouble).toArray();
+                    break;
+                case "--maps":
+                    mapsDir = args[i + 1];
+                    break;
+                case "--time":
+                    timeMillis = Long.parseLong(args[i + 1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown option: " + args[i]);
+            }
+        }
+    }
+
+    /**
+     * Executa todas as medições e imprime uma linha por resultado.
+     */
+    private void runAll() {
+        System.out.printf("%-22s %-10s %-14s %14s %14s%n", "benchmark", "size", "param", "ops/s", "bytes/op");
+        for (int size : sizes) {
+            for (String map : mapFiles()) {
+                Simulator simulator = new Simulator(size, size, true, SEED);
+                simulator.setMapFile(map);
+                report("simulateOneStep", size, new File(map).getName(), measureSteps(simulator));
+            }
+            for (double density : densities) {
+                Field field = filledField(size, density);
+                RandomStream rand = new RandomStream(SEED);
+                CellFilter occupied = occupant -> occupant != null;
+                String param = "density=" + density;
+                report("findAdjacent", size, param, measure(() -> {
+                    Location location = field.getLocation(rand.nextInt(size), rand.nextInt(size));
+                    Location found = field.findAdjacent(location, occupied, rand);
+                    return found == null ? 0 : found.getRow();
+                }));
+                report("freeAdjacentLocation", size, param, measure(() -> {
+                    Location location = field.getLocation(rand.nextInt(size), rand.nextInt(size));
+                    Location free = field.freeAdjacentLocation(location, rand);
+                    return free == null ? 0 : free.getCol();
+                }));
+                FieldStats stats = new FieldStats();
+                report("generateCounts", size, param, measure(() -> {
+                    stats.generateCounts(field);
+                    return stats.getCount(Species.RABBIT);
+                }));
+            }
+        }
+        if (sink == 42) {
+            System.out.println();
+        }
+    }
+
+    /**
+     * @return Os arquivos de mapa da pasta de mapas, em ordem alfabética.
+     */
+    private List<String> mapFiles() {
+        List<String> maps = new ArrayList<>();
+        File[] files = new File(mapsDir).listFiles((dir, name) -> name.endsWith(".txt"));
+        if (files != null) {
+            Arrays.sort(files);
+            for (File file : files) {
+                maps.add(file.getPath());
+            }
+        }
+        return maps;
+    }
+
+    /**
+     * Cria um campo com a fração dada de células ocupadas por coelhos.
+     */
+    private static Field filledField(int size, double density) {
+        Field field = new Field(size, size);
+        RandomStream rand = new RandomStream(SEED);
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                if (rand.nextDouble() < density) {
+                    Rabbit rabbit = new Rabbit(false, rand.split(), SimulationConfig.DEFAULT);
+                    rabbit.setLocation(field.getLocation(row, col));
+                    field.place(rabbit, row, col);
+                }
+            }
+        }
+        return field;
+    }
+
+    /**
+     * Aquece e mede uma operação.
+     *
+     * @return { operações por segundo, bytes alocados por operação }.
+     */
+    private double[] measure(Operation operation) {
+        runFor(operation, timeMillis);
+        long bytesBefore = allocatedBytes();
+        long start = System.nanoTime();
+        long ops = runFor(operation, timeMillis);
+        long elapsed = System.nanoTime() - start;
+        long bytes = allocatedBytes() - bytesBefore;
+        return new double[] { ops * 1e9 / elapsed, (double) bytes / ops };
+    }
+
+    /**
+     * Aquece e mede simulateOneStep. Cada amostra recomeça a simulação
+     * (fora da medição) e roda SAMPLE_STEPS passos, ou menos se o tempo
+     * acabar ou a simulação parar antes.
+     *
+     * @return { passos por segundo, bytes alocados por passo }.
+     */
+    private double[] measureSteps(Simulator simulator) {
+        sampleSteps(simulator, timeMillis, null);
+        long[] totals = new long[3];
+        sampleSteps(simulator, timeMillis, totals);
+        return new double[] { totals[0] * 1e9 / totals[1], (double) totals[2] / totals[0] };
+    }
+
+    /**
+     * Roda amostras de passos até o tempo acabar.
+     *
+     * @param totals Recebe passos, nanossegundos e bytes alocados (só dos
+     *               passos), ou null no aquecimento.
+     */
+    private static void sampleSteps(Simulator simulator, long millis, long[] totals) {
+        long deadline = System.nanoTime() + millis * 1_000_000;
+        do {
+            simulator.reset();
+            long bytesBefore = allocatedBytes();
+            long start = System.nanoTime();
+            int steps = 0;
+            while (steps < SAMPLE_STEPS && simulator.checkStop() == null
+                    && (steps == 0 || System.nanoTime() < deadline)) {
+                simulator.simulateOneStep();
+                steps++;
+            }
+            long elapsed = System.nanoTime() - start;
+            long bytes = allocatedBytes() - bytesBefore;
+            if (totals != null) {
+                totals[0] += steps;
+                totals[1] += elapsed;
+                totals[2] += bytes;
+            }
+        } while (System.nanoTime() < deadline);
+    }
+
+    /**
+     * Repete a operação até o tempo acabar, verificando o relógio a cada
+     * lote para não medir principalmente System.nanoTime.
+     *
+     * @return O número de operações executadas.
+     */
+    private static long runFor(Operation operation, long millis) {
+        long deadline = System.nanoTime() + millis * 1_000_000;
+        long ops = 0;
+        int batch = 1;
+        while (System.nanoTime() < deadline) {
+            for (int i = 0; i < batch; i++) {
+                sink += operation.run();
+            }
+            ops += batch;
+            if (batch < MAX_BATCH) {
+                batch *= 2;
+            }
+        }
+        return ops;
+    }
+
+    /**
+     * @return Os bytes alocados até agora pela thread atual, ou 0 se a JVM
+     *         não oferecer essa medida.
+     */
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+
+    private static void report(String name, int size, String param, double[] result) {
+        System.out.printf("%-22s %-10s %-14s %14.1f %14.1f%n", name, size + "x" + size, param, result[0], result[1]);
+    }
+}
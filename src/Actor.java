@@ -24,4 +24,25 @@ public interface Actor {
      * @return True se o ator ainda estiver ativo/vivo.
      */
     boolean isAlive();
+
+    /**
+     * Retorna a localização atual do ator.
+     * 
+     * @return A localização do ator no campo.
+     */
+    Location getLocation();
+
+    /**
+     * Retorna a espécie do ator, usada nas contagens e na visualização.
+     * 
+     * @return A espécie do ator.
+     */
+    Species getSpecies();
+
+    /**
+     * Retorna a causa da morte do ator.
+     * 
+     * @return A causa da morte, ou null se o ator estiver vivo ou não morrer.
+     */
+    DeathCause getDeathCause();
 }
\ No newline at end of file
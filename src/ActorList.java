@@ -0,0 +1,152 @@
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+
+/**
+ * A lista de atores de uma simulação, feita para o ciclo de um passo: os
+ * atores agem em uma ordem sorteada a cada passo, os recém-nascidos são
+ * acrescentados no fim (em O(1) amortizado) e os mortos são retirados de
+ * uma vez só ao fim do passo (removeDead), em O(n) mesmo quando morre
+ * quase todo mundo.
+ *
+ * A ordem de visita (newVisitOrder) percorre a lista a partir de uma
+ * posição sorteada, com um passo sorteado primo com o tamanho da lista:
+ * start, start + stride, start + 2 * stride, ... (módulo o tamanho). Isso
+ * visita cada ator exatamente uma vez e muda a cada passo, sem embaralhar a
+ * lista inteira.
+ *
+ * @author GRUPO 05
+ * @version 2025
+ */
+public class ActorList extends AbstractList<Actor> implements RandomAccess {
+    /** Capacidade inicial do vetor de atores. */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** Os atores, nas posições 0 a size - 1. */
+    private Actor[] items = new Actor[INITIAL_CAPACITY];
+    /** Quantos atores há na lista. */
+    private int size;
+    /** A primeira posição visitada no passo. */
+    private int start;
+    /** A distância entre duas posições visitadas em seguida. */
+    private int stride = 1;
+
+    @Override
+    public Actor get(int index) {
+        checkIndex(index);
+        return items[index];
+    }
+
+    @Override
+    public Actor set(int index, Actor actor) {
+        checkIndex(index);
+        Actor previous = items[index];
+        items[index] = actor;
+        return previous;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Acrescenta um ator no fim da lista.
+     *
+     * @param actor O ator.
+     * @return Sempre true.
+     */
+    @Override
+    public boolean add(Actor actor) {
+        if (size == items.length) {
+            items = Arrays.copyOf(items, size * 2);
+        }
+        items[size++] = actor;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(items, 0, size, null);
+        size = 0;
+        start = 0;
+        stride = 1;
+        modCount++;
+    }
+
+    /**
+     * Sorteia a ordem em que os atores serão visitados (veja
+     * forEachInVisitOrder). Deve ser chamado a cada passo, antes da visita.
+     *
+     * @param rand O fluxo aleatório da simulação.
+     */
+    public void newVisitOrder(RandomStream rand) {
+        if (size < 2) {
+            start = 0;
+            stride = 1;
+            return;
+        }
+        start = rand.nextInt(size);
+        do {
+            stride = 1 + rand.nextInt(size - 1);
+        } while (gcd(stride, size) != 1);
+    }
+
+    /**
+     * Visita cada ator uma vez, na ordem sorteada por newVisitOrder. A lista
+     * não pode mudar durante a visita.
+     *
+     * @param visitor O que fazer com cada ator.
+     */
+    public void forEachInVisitOrder(Consumer<Actor> visitor) {
+        int count = size;
+        int index = count == 0 ? 0 : start % count;
+        int step = count == 0 ? 1 : stride % count;
+        for (int i = 0; i < count; i++) {
+            visitor.accept(items[index]);
+            index += step;
+            if (index >= count) {
+                index -= count;
+            }
+        }
+    }
+
+    /**
+     * Retira da lista os atores mortos, mantendo a ordem relativa dos vivos.
+     *
+     * @param onDeath Recebe cada ator retirado.
+     */
+    public void removeDead(Consumer<Actor> onDeath) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            Actor actor = items[i];
+            if (actor.isAlive()) {
+                items[kept++] = actor;
+            } else {
+                onDeath.accept(actor);
+            }
+        }
+        if (kept != size) {
+            Arrays.fill(items, kept, size, null);
+            size = kept;
+            modCount++;
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index " + index + ", size " + size);
+        }
+    }
+
+    private static int gcd(int a, int b) {
+        while (b != 0) {
+            int t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+}
@@ -1,5 +1,4 @@
 import java.util.List;
-import java.util.Random;
 
 /**
  * Uma classe que representa características compartilhadas de animais.
@@ -15,17 +14,26 @@ public abstract class Animal implements Actor {
     private Location location;
     /** A idade do animal */
     private int age;
+    /** A causa da última morte registrada (null enquanto vivo). */
+    private DeathCause deathCause;
     /**
-     * Um gerador de números aleatórios compartilhado para controlar a reprodução.
+     * O fluxo aleatório próprio deste animal (reprodução, movimento).
      */
-    private static final Random rand = new Random();
+    private final RandomStream rand;
+    /** Os parâmetros da simulação à qual o animal pertence. */
+    private final SimulationConfig config;
 
     /**
      * Cria um novo animal com idade 0.
+     * 
+     * @param rand   O fluxo aleatório próprio do animal.
+     * @param config Os parâmetros da simulação (herdados pelos filhotes).
      */
-    public Animal() {
+    public Animal(RandomStream rand, SimulationConfig config) {
         age = 0;
         alive = true;
+        this.rand = rand;
+        this.config = config;
     }
 
     /**
@@ -76,9 +84,21 @@ public abstract class Animal implements Actor {
     /**
      * Indica que o animal não está mais vivo.
      * Ele é removido do campo automaticamente.
+     * 
+     * @param cause A causa da morte.
      */
-    protected void setDead() {
+    protected void setDead(DeathCause cause) {
         alive = false;
+        deathCause = cause;
+    }
+
+    /**
+     * Retorna a causa da morte do animal.
+     * 
+     * @return A causa da morte, ou null se o animal estiver vivo.
+     */
+    public DeathCause getDeathCause() {
+        return isAlive() ? null : deathCause;
     }
 
     /**
@@ -100,13 +120,22 @@ public abstract class Animal implements Actor {
     }
 
     /**
-     * Define a localização do animal.
+     * Retorna o fluxo aleatório próprio do animal. Filhotes devem receber
+     * um fluxo derivado dele (split).
+     * 
+     * @return O fluxo aleatório do animal.
+     */
+    protected RandomStream getRandom() {
+        return rand;
+    }
+
+    /**
+     * Retorna os parâmetros da simulação. Filhotes devem receber os mesmos.
      * 
-     * @param row A coordenada vertical da localização.
-     * @param col A coordenada horizontal da localização.
+     * @return Os parâmetros da simulação.
      */
-    public void setLocation(int row, int col) {
-        this.location = new Location(row, col);
+    protected SimulationConfig getConfig() {
+        return config;
     }
 
     /**
@@ -131,7 +160,7 @@ public abstract class Animal implements Actor {
     protected void incrementAge() {
         age++;
         if (age > getMaxAge()) {
-            setDead();
+            setDead(DeathCause.AGE);
         }
     }
 
@@ -0,0 +1,115 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Grava as métricas de cada passo em um formato binário colunar, com
+ * largura fixa (int32), que pode ser lido diretamente por coluna.
+ * 
+ * Formato (little-endian):
+ * cabeçalho: "PPOOMTRC" (8 bytes), versão (int), número de espécies (int),
+ * número de causas de morte (int), número de colunas (int);
+ * em seguida, blocos de até BATCH_STEPS passos: quantidade de linhas (int)
+ * e cada coluna inteira, contígua, com um int por linha. As colunas seguem a
+ * mesma ordem do CSV (veja CsvMetricsSink).
+ * 
+ * @author GRUPO 05
+ * @version 2025
+ */
+public class BinaryMetricsSink implements MetricsSink {
+    /** Identificação do formato no início do arquivo. */
+    private static final byte[] MAGIC = { 'P', 'P', 'O', 'O', 'M', 'T', 'R', 'C' };
+    /** Versão do formato. */
+    private static final int VERSION = 1;
+    /** Passos acumulados em cada bloco. */
+    private static final int BATCH_STEPS = 4096;
+    /** Número de colunas: passo, estação, populações, nascimentos, mortes, frutos. */
+    private static final int COLUMNS = 2 + 2 * StepMetrics.SPECIES.length
+            + StepMetrics.SPECIES.length * StepMetrics.CAUSES.length + 1;
+
+    /** O arquivo de saída. */
+    private final FileChannel channel;
+    /** Os valores do bloco atual, coluna por coluna. */
+    private final int[][] columns = new int[COLUMNS][BATCH_STEPS];
+    /** Quantas linhas o bloco atual tem. */
+    private int rows;
+    /** Buffer reutilizado para escrever um bloco. */
+    private final ByteBuffer buffer;
+
+    /**
+     * Cria (ou sobrescreve) o arquivo e escreve o cabeçalho.
+     * 
+     * @param path O caminho do arquivo.
+     * @throws IOException Se o arquivo não puder ser criado.
+     */
+    public BinaryMetricsSink(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        buffer = ByteBuffer.allocateDirect(Integer.BYTES * (1 + COLUMNS * BATCH_STEPS))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put(MAGIC).putInt(VERSION).putInt(StepMetrics.SPECIES.length)
+                .putInt(StepMetrics.CAUSES.length).putInt(COLUMNS);
+        write();
+    }
+
+    @Override
+    public void record(StepMetrics metrics) throws IOException {
+        int column = 0;
+        columns[column++][rows] = metrics.getStep();
+        columns[column++][rows] = metrics.getSeason();
+        for (Species species : StepMetrics.SPECIES) {
+            columns[column++][rows] = metrics.getPopulation(species);
+        }
+        for (Species species : StepMetrics.SPECIES) {
+            columns[column++][rows] = metrics.getBirths(species);
+        }
+        for (Species species : StepMetrics.SPECIES) {
+            for (DeathCause cause : StepMetrics.CAUSES) {
+                columns[column++][rows] = metrics.getDeaths(species, cause);
+            }
+        }
+        columns[column][rows] = metrics.getFruitStock();
+        if (++rows == BATCH_STEPS) {
+            flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Escreve o bloco atual, se houver linhas.
+     */
+    private void flush() throws IOException {
+        if (rows == 0) {
+            return;
+        }
+        buffer.putInt(rows);
+        for (int[] values : columns) {
+            buffer.asIntBuffer().put(values, 0, rows);
+            buffer.position(buffer.position() + rows * Integer.BYTES);
+        }
+        write();
+        rows = 0;
+    }
+
+    /**
+     * Escreve o conteúdo do buffer no arquivo e o limpa.
+     */
+    private void write() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
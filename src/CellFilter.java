@@ -0,0 +1,17 @@
+/**
+ * Critério usado pelo campo ao percorrer as posições vizinhas de uma
+ * localização. Implementações sem estado (por exemplo, constantes estáticas)
+ * permitem percorrer a vizinhança sem criar objetos.
+ * 
+ * @author GRUPO 05
+ * @version 2025
+ */
+public interface CellFilter {
+    /**
+     * Decide se uma posição vizinha satisfaz o critério.
+     * 
+     * @param occupant O objeto na posição, ou null se ela estiver vazia.
+     * @return true se a posição deve ser escolhida.
+     */
+    boolean accept(Object occupant);
+}
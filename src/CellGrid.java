@@ -0,0 +1,44 @@
+/**
+ * Uma grade de células com um código int por célula, usada pelo motor
+ * orientado a dados (ColumnarSimulation). A grade pode ficar no heap
+ * (HeapCellGrid) ou fora dele (OffHeapCellGrid).
+ * 
+ * @author GRUPO 05
+ * @version 2025
+ */
+public interface CellGrid {
+    /**
+     * @param cell O índice da célula (linha * largura + coluna).
+     * @return O código guardado na célula.
+     */
+    int get(int cell);
+
+    /**
+     * @param cell O índice da célula (linha * largura + coluna).
+     * @param code O código a ser guardado.
+     */
+    void set(int cell, int code);
+
+    /**
+     * Escreve o mesmo código em todas as células.
+     * 
+     * @param code O código.
+     */
+    void fill(int code);
+
+    /**
+     * @return Quantas células a grade tem.
+     */
+    int size();
+
+    /**
+     * Avisa que esta grade passou a ser o campo atual, ao fim de um passo
+     * (as grades do campo atual e do próximo são trocadas a cada passo).
+     * Grades lidas por outras ferramentas registram isso para elas; as
+     * demais não fazem nada.
+     * 
+     * @param step O passo concluído.
+     */
+    default void markCurrent(int step) {
+    }
+}
@@ -0,0 +1,170 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Leitura e escrita de arquivos de checkpoint (estado completo de uma
+ * simulação), através de FileChannel.
+ * 
+ * O arquivo começa com um cabeçalho fixo de 20 bytes, little-endian: a
+ * assinatura "PPOOCKPT", a versão do formato, as opções (bit 0: corpo
+ * comprimido com Deflater) e o tamanho do corpo sem compressão. Em seguida
+ * vem o corpo, cujo conteúdo é definido por Simulator.saveCheckpoint.
+ * 
+ * @author GRUPO 05
+ * @version 2025
+ */
+public class Checkpoint {
+    /** Assinatura no início de todo checkpoint. */
+    private static final byte[] MAGIC = "PPOOCKPT".getBytes(StandardCharsets.US_ASCII);
+    /** A versão do formato do corpo. */
+    static final int VERSION = 2;
+    /** Opção: o corpo está comprimido. */
+    private static final int COMPRESSED = 1;
+    /** Tamanho do cabeçalho em bytes. */
+    private static final int HEADER_BYTES = MAGIC.length + 3 * Integer.BYTES;
+    /** Tamanho dos blocos comprimidos escritos de cada vez. */
+    private static final int BLOCK_BYTES = 1 << 16;
+
+    private Checkpoint() {
+    }
+
+    /**
+     * Cria um corpo vazio, em little-endian, para ser preenchido e gravado
+     * com write.
+     * 
+     * @param capacity O tamanho máximo do corpo em bytes.
+     * @return O corpo.
+     */
+    static ByteBuffer newBody(int capacity) {
+        return ByteBuffer.allocate(capacity).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Grava um checkpoint, substituindo o arquivo se ele existir. O conteúdo
+     * é escrito em um arquivo temporário ao lado, levado ao disco (force) e
+     * só então renomeado sobre o arquivo, de forma atômica: uma interrupção
+     * durante a gravação deixa o checkpoint anterior intacto.
+     * 
+     * @param file     O arquivo.
+     * @param body     O corpo, da posição 0 até a posição atual.
+     * @param compress Se true, comprime o corpo.
+     * @throws IOException Se a escrita falhar.
+     */
+    static void write(Path file, ByteBuffer body, boolean compress) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                writeContent(channel, body, compress);
+                channel.force(true);
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    /**
+     * Escreve o cabeçalho e o corpo (comprimido ou não) em um canal.
+     */
+    private static void writeContent(FileChannel channel, ByteBuffer body, boolean compress) throws IOException {
+        int length = body.position();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.put(MAGIC).putInt(VERSION).putInt(compress ? COMPRESSED : 0).putInt(length).flip();
+        writeFully(channel, header);
+        if (!compress) {
+            writeFully(channel, ByteBuffer.wrap(body.array(), 0, length));
+            return;
+        }
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(body.array(), 0, length);
+            deflater.finish();
+            byte[] block = new byte[BLOCK_BYTES];
+            while (!deflater.finished()) {
+                int count = deflater.deflate(block);
+                writeFully(channel, ByteBuffer.wrap(block, 0, count));
+            }
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Lê um checkpoint.
+     * 
+     * @param file O arquivo.
+     * @return O corpo (descomprimido), pronto para leitura em little-endian.
+     * @throws IOException Se a leitura falhar ou o arquivo não for um
+     *                     checkpoint desta versão.
+     */
+    static ByteBuffer read(Path file) throws IOException {
+        ByteBuffer content;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException("Checkpoint inválido: " + file);
+            }
+            content = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+            while (content.hasRemaining()) {
+                if (channel.read(content) < 0) {
+                    throw new IOException("Checkpoint truncado: " + file);
+                }
+            }
+            content.flip();
+        }
+        byte[] magic = new byte[MAGIC.length];
+        content.get(magic);
+        int version = content.getInt();
+        int options = content.getInt();
+        int length = content.getInt();
+        if (!Arrays.equals(magic, MAGIC) || version != VERSION) {
+            throw new IOException("Checkpoint inválido ou de outra versão: " + file);
+        }
+        if ((options & COMPRESSED) == 0) {
+            return content.slice().order(ByteOrder.LITTLE_ENDIAN);
+        }
+        byte[] body = new byte[length];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(content.array(), content.position(), content.remaining());
+            int read = 0;
+            while (read < length && !inflater.finished()) {
+                int count = inflater.inflate(body, read, length - read);
+                if (count == 0 && inflater.needsInput()) {
+                    break;
+                }
+                read += count;
+            }
+            if (read != length) {
+                throw new IOException("Checkpoint truncado: " + file);
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Checkpoint corrompido: " + file, e);
+        } finally {
+            inflater.end();
+        }
+        return ByteBuffer.wrap(body).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Escreve todo o conteúdo do buffer no canal.
+     */
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * Camada do campo dividida em blocos de 64 x 64 células, criados só quando
+ * algo é colocado neles. A memória cresce com as regiões ocupadas, e não
+ * com a área, o que permite mundos muito grandes e quase vazios.
+ * 
+ * Cada linha de um bloco corresponde a exatamente uma palavra dos mapas de
+ * bits. Ao esvaziar a camada, os blocos que ficaram vazios desde a limpeza
+ * anterior são liberados; os demais são reaproveitados. Um bloco interno
+ * totalmente coberto de pedras é trocado por um único bloco compartilhado
+ * (somente leitura), que devolve a mesma pedra genérica em todas as células.
+ * Essa pedra não tem localização: quem lê pedras do campo deve usar a
+ * célula consultada, e não Stone.getLocation.
+ * 
+ * @author GRUPO 05
+ * @version 2025
+ */
+class ChunkedFieldLayer implements FieldLayer {
+    /** Lado de um bloco, em células (igual ao tamanho de uma palavra). */
+    static final int TILE_SIZE = 64;
+    /** log2(TILE_SIZE). */
+    private static final int TILE_SHIFT = 6;
+    /** Acesso atômico ao vetor de blocos (criação concorrente). */
+    private static final VarHandle TILES = MethodHandles.arrayElementVarHandle(Tile[].class);
+    /**
+     * Pedra devolvida pelas células do bloco compartilhado. Ela ocupa várias
+     * células, então getLocation devolve null.
+     */
+    static final Stone SOLID_STONE = new Stone(null);
+    /** Bloco compartilhado em que todas as células são pedra. */
+    private static final Tile SOLID = createSolidTile();
+
+    /** Um bloco de células. */
+    private static final class Tile {
+        /** O objeto de cada célula ((linha % 64) * 64 + coluna % 64). */
+        final Object[] cells = new Object[TILE_SIZE * TILE_SIZE];
+        /** Os mapas de bits; uma palavra por linha do bloco. */
+        final long[][] maps = new long[MAPS][TILE_SIZE];
+    }
+
+    /** A profundidade e largura do campo. */
+    private final int depth, width;
+    /** Quantos blocos existem em cada linha de blocos. */
+    private final int tileCols;
+    /** Os blocos (null enquanto vazios). */
+    private final Tile[] tiles;
+    /** O hash do conteúdo. */
+    private final FieldHash hash = new FieldHash();
+
+    /**
+     * Cria uma camada vazia.
+     * 
+     * @param depth A profundidade do campo.
+     * @param width A largura do campo.
+     */
+    ChunkedFieldLayer(int depth, int width) {
+        this.depth = depth;
+        this.width = width;
+        tileCols = (width + TILE_SIZE - 1) >>> TILE_SHIFT;
+        int tileRows = (depth + TILE_SIZE - 1) >>> TILE_SHIFT;
+        tiles = new Tile[Math.multiplyExact(tileRows, tileCols)];
+    }
+
+    @Override
+    public Object get(int row, int col) {
+        Tile tile = tiles[(row >>> TILE_SHIFT) * tileCols + (col >>> TILE_SHIFT)];
+        if (tile == null || (tile.maps[OCCUPIED][row & (TILE_SIZE - 1)] & (1L << col)) == 0) {
+            return null;
+        }
+        return tile.cells[cellIndex(row, col)];
+    }
+
+    @Override
+    public long word(int map, int row, int word) {
+        Tile tile = tiles[(row >>> TILE_SHIFT) * tileCols + word];
+        return tile == null ? 0 : tile.maps[map][row & (TILE_SIZE - 1)];
+    }
+
+    @Override
+    public void put(int row, int col, Object object, boolean concurrent) {
+        int index = (row >>> TILE_SHIFT) * tileCols + (col >>> TILE_SHIFT);
+        Tile tile = tiles[index];
+        if (tile == null) {
+            if (object == null) {
+                return;
+            }
+            tile = allocate(index);
+        } else if (tile == SOLID) {
+            tile = unshare(index);
+        }
+        int cell = cellIndex(row, col);
+        Object previous = FieldLayer.updateMaps(tile.maps, row & (TILE_SIZE - 1), 1L << col, tile.cells[cell],
+                object, concurrent);
+        tile.cells[cell] = object;
+        hash.replace((long) row * width + col, previous, object, concurrent);
+        if (!concurrent && object instanceof Stone) {
+            shareIfSolid(index, tile);
+        }
+    }
+
+    /**
+     * Esvazia a camada: libera os blocos que não tinham nenhuma célula
+     * ocupada e zera os mapas dos demais, para reaproveitá-los.
+     */
+    @Override
+    public void clear() {
+        for (int i = 0; i < tiles.length; i++) {
+            Tile tile = tiles[i];
+            if (tile == null) {
+                continue;
+            }
+            if (tile == SOLID || isEmpty(tile)) {
+                tiles[i] = null;
+            } else {
+                for (long[] map : tile.maps) {
+                    Arrays.fill(map, 0);
+                }
+            }
+        }
+        hash.reset();
+    }
+
+    @Override
+    public long hash() {
+        return hash.get();
+    }
+
+    /**
+     * @return Quantos blocos estão alocados (incluindo os compartilhados).
+     */
+    int allocatedTiles() {
+        int count = 0;
+        for (Tile tile : tiles) {
+            if (tile != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return O índice da célula dentro do seu bloco.
+     */
+    private static int cellIndex(int row, int col) {
+        return ((row & (TILE_SIZE - 1)) << TILE_SHIFT) | (col & (TILE_SIZE - 1));
+    }
+
+    /**
+     * Cria o bloco do índice dado. Se outra thread o criar ao mesmo tempo,
+     * usa o dela.
+     */
+    private Tile allocate(int index) {
+        Tile created = new Tile();
+        Tile existing = (Tile) TILES.compareAndExchange(tiles, index, null, created);
+        return existing == null ? created : existing;
+    }
+
+    /**
+     * Troca o bloco compartilhado do índice por uma cópia própria, para que
+     * possa ser alterado.
+     */
+    private Tile unshare(int index) {
+        Tile copy = new Tile();
+        Arrays.fill(copy.cells, SOLID_STONE);
+        Arrays.fill(copy.maps[OCCUPIED], -1L);
+        Arrays.fill(copy.maps[FieldLayer.speciesMap(Species.STONE)], -1L);
+        tiles[index] = copy;
+        return copy;
+    }
+
+    /**
+     * Troca um bloco interno totalmente coberto de pedras pelo bloco
+     * compartilhado.
+     */
+    private void shareIfSolid(int index, Tile tile) {
+        int tileRow = index / tileCols;
+        int tileCol = index - tileRow * tileCols;
+        if ((tileRow + 1) * TILE_SIZE > depth || (tileCol + 1) * TILE_SIZE > width) {
+            return;
+        }
+        long[] stones = tile.maps[FieldLayer.speciesMap(Species.STONE)];
+        for (long word : stones) {
+            if (word != -1L) {
+                return;
+            }
+        }
+        tiles[index] = SOLID;
+    }
+
+    /**
+     * @return Se nenhuma célula do bloco está ocupada.
+     */
+    private static boolean isEmpty(Tile tile) {
+        for (long word : tile.maps[OCCUPIED]) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return O bloco em que todas as células são pedra.
+     */
+    private static Tile createSolidTile() {
+        Tile tile = new Tile();
+        Arrays.fill(tile.cells, SOLID_STONE);
+        Arrays.fill(tile.maps[OCCUPIED], -1L);
+        Arrays.fill(tile.maps[FieldLayer.speciesMap(Species.STONE)], -1L);
+        return tile;
+    }
+}
@@ -0,0 +1,540 @@
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+/**
+ * Um motor de simulação orientado a dados, alternativo ao Simulator.
+ *
+ * Em vez de um objeto por animal, cada espécie é guardada em colunas de
+ * tipos primitivos (idade, célula, comida/energia, ...), e o campo é um
+ * vetor de int com o código da espécie e o índice do animal na sua coluna.
+ * Animais mortos são removidos ao fim de cada passo trocando-os pelo último
+ * da coluna (swap-remove), então os laços percorrem memória contígua.
+ *
+ * As regras de comportamento são as mesmas das classes Fox, Rabbit, Hunter e
+ * Tree, que continuam sendo o modelo de referência. A diferença de semântica
+ * é a ordem: aqui as espécies agem em blocos (árvores, coelhos, raposas,
+ * caçadores), e não intercaladas numa lista embaralhada. O motor roda sem
+ * interface gráfica e usa um único fluxo aleatório com semente. A percepção
+ * de longo alcance (FlowFields) não existe aqui: os predadores sem presa ao
+ * lado sempre andam ao acaso.
+ *
+ * @author GRUPO 05
+ * @version 2025
+ */
+public class ColumnarSimulation {
+    /** Código de célula vazia. */
+    private static final int EMPTY = 0;
+    /** Bits do código de célula reservados para o índice na coluna. */
+    private static final int INDEX_BITS = 24;
+    /** Máscara do índice dentro do código de célula. */
+    private static final int INDEX_MASK = (1 << INDEX_BITS) - 1;
+    /** As espécies, indexadas pelo código (cópia única de Species.values()). */
+    private static final Species[] SPECIES = Species.values();
+    /** Capacidade inicial de cada coluna. */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /** A profundidade e largura do campo. */
+    private final int depth, width;
+    /** Ocupação do campo atual: (espécie + 1) << INDEX_BITS | índice. */
+    private CellGrid grid;
+    /** Ocupação do campo sendo construído para o próximo passo. */
+    private CellGrid nextGrid;
+    /** Camada estática (pedras e árvores), com a mesma codificação. */
+    private final CellGrid fixed;
+    /** As colunas de cada espécie que se move. */
+    private final Herd foxes, rabbits, hunters;
+    /** As colunas das árvores (a comida guarda a quantidade de frutos). */
+    private final Herd trees;
+    /** Quantidade de pedras no campo. */
+    private int stones;
+    /** O fluxo aleatório do motor. */
+    private final RandomStream rand;
+    /** Os parâmetros da simulação. */
+    private final SimulationConfig config;
+    /** O passo atual. */
+    private int step;
+
+    /**
+     * Cria um motor vazio.
+     *
+     * @param depth A profundidade do campo.
+     * @param width A largura do campo.
+     * @param seed  A semente dos números aleatórios.
+     */
+    public ColumnarSimulation(int depth, int width, long seed) {
+        this(depth, width, seed, SimulationConfig.DEFAULT, HeapCellGrid::new);
+    }
+
+    /**
+     * Cria um motor vazio com grades fornecidas por uma fábrica, por exemplo
+     * fora do heap (veja OffHeapCellGrid). As grades são pedidas na ordem:
+     * campo atual, próximo campo e camada estática.
+     *
+     * @param depth A profundidade do campo.
+     * @param width A largura do campo.
+     * @param seed   A semente dos números aleatórios.
+     * @param config Os parâmetros da simulação.
+     * @param grids  Cria uma grade com o número de células pedido.
+     */
+    public ColumnarSimulation(int depth, int width, long seed, SimulationConfig config,
+            IntFunction<CellGrid> grids) {
+        this.depth = depth;
+        this.config = config;
+        this.width = width;
+        int size = Math.multiplyExact(depth, width);
+        grid = grids.apply(size);
+        nextGrid = grids.apply(size);
+        fixed = grids.apply(size);
+        // Grades mapeadas podem trazer o conteúdo anterior do arquivo.
+        grid.fill(EMPTY);
+        nextGrid.fill(EMPTY);
+        fixed.fill(EMPTY);
+        grid.markCurrent(0);
+        foxes = new Herd(Species.FOX);
+        rabbits = new Herd(Species.RABBIT);
+        hunters = new Herd(Species.HUNTER);
+        trees = new Herd(Species.TREE);
+        rand = new RandomStream(seed);
+    }
+
+    /**
+     * Coloca uma pedra no campo.
+     */
+    public void addStone(int row, int col) {
+        fixed.set(row * width + col, encode(Species.STONE, 0));
+        stones++;
+    }
+
+    /**
+     * Coloca uma árvore no campo.
+     */
+    public void addTree(int row, int col, int fruitCount) {
+        int cell = row * width + col;
+        int index = trees.add(cell, 0, fruitCount);
+        fixed.set(cell, encode(Species.TREE, index));
+    }
+
+    /**
+     * Coloca uma raposa no campo.
+     */
+    public void addFox(int row, int col, int age, int foodLevel) {
+        int cell = row * width + col;
+        grid.set(cell, encode(Species.FOX, foxes.add(cell, age, foodLevel)));
+    }
+
+    /**
+     * Coloca um coelho no campo.
+     */
+    public void addRabbit(int row, int col, int age) {
+        int cell = row * width + col;
+        grid.set(cell, encode(Species.RABBIT, rabbits.add(cell, age, 0)));
+    }
+
+    /**
+     * Coloca um caçador no campo.
+     */
+    public void addHunter(int row, int col, int age, int energy) {
+        int cell = row * width + col;
+        grid.set(cell, encode(Species.HUNTER, hunters.add(cell, age, energy)));
+    }
+
+    /**
+     * Define o passo atual (ao continuar uma simulação existente).
+     */
+    public void setStep(int step) {
+        this.step = step;
+        grid.markCurrent(step);
+    }
+
+    /**
+     * Executa um passo da simulação.
+     */
+    public void simulateOneStep() {
+        // A estação vista pelos atores é a calculada ao fim do passo anterior.
+        int season = (step / config.getInt(SimulationParameter.SEASON_LENGTH)) % 4;
+        step++;
+
+        int count = trees.size;
+        for (int i = 0; i < count; i++) {
+            growFruit(i, season);
+        }
+        count = rabbits.size;
+        for (int i = 0; i < count; i++) {
+            if (rabbits.alive[i]) {
+                actRabbit(i);
+            }
+        }
+        count = foxes.size;
+        for (int i = 0; i < count; i++) {
+            if (foxes.alive[i]) {
+                actFox(i);
+            }
+        }
+        count = hunters.size;
+        for (int i = 0; i < count; i++) {
+            if (hunters.alive[i]) {
+                actHunter(i);
+            }
+        }
+
+        rabbits.compact();
+        foxes.compact();
+        hunters.compact();
+
+        CellGrid temp = grid;
+        grid = nextGrid;
+        nextGrid = temp;
+        nextGrid.fill(EMPTY);
+        grid.markCurrent(step);
+    }
+
+    /**
+     * Mesmas regras de Tree.growFruit (0 = primavera, 1 = verão).
+     */
+    private void growFruit(int i, int season) {
+        if (trees.food[i] < config.getInt(SimulationParameter.TREE_MAX_FRUITS)) {
+            double growthRate = config.get(SimulationParameter.TREE_GROWTH_RATE);
+            if (season == 1 && rand.nextDouble() <= growthRate) {
+                trees.food[i]++;
+            }
+            if (season == 0 && rand.nextDouble() <= growthRate + config.get(SimulationParameter.TREE_SPRING_GROWTH_BONUS)) {
+                trees.food[i]++;
+            }
+        }
+    }
+
+    /**
+     * Mesmas regras de Rabbit.act.
+     */
+    private void actRabbit(int i) {
+        int age = ++rabbits.age[i];
+        if (age > config.getInt(SimulationParameter.RABBIT_MAX_AGE)) {
+            rabbits.alive[i] = false;
+            return;
+        }
+        int cell = rabbits.cell[i];
+        int births = breed(age >= config.getInt(SimulationParameter.RABBIT_BREEDING_AGE),
+                config.get(SimulationParameter.RABBIT_BREEDING_PROBABILITY),
+                config.getInt(SimulationParameter.RABBIT_MAX_LITTER_SIZE));
+        for (int b = 0; b < births; b++) {
+            int target = randomAdjacentCell(cell);
+            nextGrid.set(target, encode(Species.RABBIT, rabbits.add(target, 0, 0)));
+        }
+        moveOrDie(rabbits, i, freeAdjacentCell(cell));
+    }
+
+    /**
+     * Mesmas regras de Fox.act.
+     */
+    private void actFox(int i) {
+        int age = ++foxes.age[i];
+        int food = --foxes.food[i];
+        if (age > config.getInt(SimulationParameter.FOX_MAX_AGE) || food <= 0) {
+            foxes.alive[i] = false;
+            return;
+        }
+        int cell = foxes.cell[i];
+        int foodValue = config.getInt(SimulationParameter.FOX_RABBIT_FOOD_VALUE);
+        int births = breed(age >= config.getInt(SimulationParameter.FOX_BREEDING_AGE),
+                config.get(SimulationParameter.FOX_BREEDING_PROBABILITY),
+                config.getInt(SimulationParameter.FOX_MAX_LITTER_SIZE));
+        for (int b = 0; b < births; b++) {
+            int target = randomAdjacentCell(cell);
+            nextGrid.set(target, encode(Species.FOX, foxes.add(target, 0, foodValue)));
+        }
+        int target = findTarget(cell, false, false);
+        if (target >= 0) {
+            rabbits.alive[grid.get(target) & INDEX_MASK] = false;
+            foxes.food[i] = (short) foodValue;
+        } else {
+            target = freeAdjacentCell(cell);
+        }
+        moveOrDie(foxes, i, target);
+    }
+
+    /**
+     * Mesmas regras de Hunter.act: o caçador só morre quando a energia acaba
+     * e, como o contador de abates é zerado a cada passo, não chega a se
+     * reproduzir.
+     */
+    private void actHunter(int i) {
+        hunters.age[i]++;
+        int maxEnergy = config.getInt(SimulationParameter.HUNTER_MAX_ENERGY);
+        int energy = hunters.food[i] -= config.getInt(SimulationParameter.HUNTER_ENERGY_LOSS);
+        if (energy <= 0) {
+            hunters.alive[i] = false;
+            return;
+        }
+        int cell = hunters.cell[i];
+        int births = breed(hunters.kills[i] >= config.getInt(SimulationParameter.HUNTER_KILLS_TO_BREED),
+                config.get(SimulationParameter.HUNTER_BREEDING_PROBABILITY),
+                config.getInt(SimulationParameter.HUNTER_MAX_LITTER_SIZE));
+        for (int b = 0; b < births; b++) {
+            int target = randomAdjacentCell(cell);
+            nextGrid.set(target, encode(Species.HUNTER, hunters.add(target, 0, maxEnergy)));
+        }
+        hunters.kills[i] = 0;
+
+        boolean hungry = energy < maxEnergy * 0.4;
+        int target = findTarget(cell, true, hungry);
+        if (target >= 0) {
+            int code = fixed.get(target) != EMPTY ? fixed.get(target) : grid.get(target);
+            int index = code & INDEX_MASK;
+            if (speciesOf(code) == Species.TREE) {
+                trees.food[index]--;
+                hunters.food[i] = (short) Math.min(energy + config.getInt(SimulationParameter.TREE_FRUIT_VALUE), maxEnergy);
+                target = -1;
+            } else {
+                herdOf(code).alive[index] = false;
+                hunters.kills[i]++;
+            }
+        }
+        if (target < 0) {
+            target = freeAdjacentCell(cell);
+        }
+        if (target >= 0) {
+            hunters.cell[i] = target;
+            nextGrid.set(target, encode(Species.HUNTER, i));
+        }
+        // Sem lugar: como em Hunter, o caçador continua vivo, fora do campo.
+    }
+
+    /**
+     * Move um animal para a célula alvo no próximo campo, ou o mata se não
+     * houver célula.
+     */
+    private void moveOrDie(Herd herd, int i, int target) {
+        if (target >= 0) {
+            herd.cell[i] = target;
+            nextGrid.set(target, encode(herd.species, i));
+        } else {
+            herd.alive[i] = false;
+        }
+    }
+
+    /**
+     * Mesmas regras de Animal.breed.
+     */
+    private int breed(boolean canBreed, double probability, int maxLitterSize) {
+        if (canBreed && rand.nextDouble() <= probability) {
+            return rand.nextInt(maxLitterSize) + 1;
+        }
+        return 0;
+    }
+
+    /**
+     * Equivalente a Field.randomAdjacentLocation.
+     */
+    private int randomAdjacentCell(int cell) {
+        int row = cell / width;
+        int col = cell - row * width;
+        int nextRow = row + rand.nextInt(3) - 1;
+        int nextCol = col + rand.nextInt(3) - 1;
+        if (nextRow < 0 || nextRow >= depth || nextCol < 0 || nextCol >= width) {
+            return cell;
+        }
+        return nextRow * width + nextCol;
+    }
+
+    /**
+     * Equivalente a Field.freeAdjacentLocation no próximo campo.
+     *
+     * @return A célula livre, ou -1 se não houver.
+     */
+    private int freeAdjacentCell(int cell) {
+        int row = cell / width;
+        int col = cell - row * width;
+        int free = 0;
+        for (int d = 0; d < Field.ROW_OFFSETS.length; d++) {
+            int nextRow = row + Field.ROW_OFFSETS[d];
+            int nextCol = col + Field.COL_OFFSETS[d];
+            if (nextRow >= 0 && nextRow < depth && nextCol >= 0 && nextCol < width) {
+                int next = nextRow * width + nextCol;
+                if (fixed.get(next) == EMPTY && nextGrid.get(next) == EMPTY) {
+                    free |= 1 << d;
+                }
+            }
+        }
+        int d = Field.randomNeighbour(free, rand);
+        if (d >= 0) {
+            return (row + Field.ROW_OFFSETS[d]) * width + col + Field.COL_OFFSETS[d];
+        }
+        return fixed.get(cell) == EMPTY && nextGrid.get(cell) == EMPTY ? cell : -1;
+    }
+
+    /**
+     * Procura no campo atual um vizinho com um coelho vivo, opcionalmente
+     * aceitando também raposas vivas e árvores com frutos.
+     *
+     * @return A célula encontrada, ou -1 se não houver.
+     */
+    private int findTarget(int cell, boolean acceptFoxes, boolean acceptFruit) {
+        int row = cell / width;
+        int col = cell - row * width;
+        byte[] order = Field.visitOrder(rand);
+        for (int d : order) {
+            int nextRow = row + Field.ROW_OFFSETS[d];
+            int nextCol = col + Field.COL_OFFSETS[d];
+            if (nextRow < 0 || nextRow >= depth || nextCol < 0 || nextCol >= width) {
+                continue;
+            }
+            int next = nextRow * width + nextCol;
+            int code = fixed.get(next) != EMPTY ? fixed.get(next) : grid.get(next);
+            if (code == EMPTY) {
+                continue;
+            }
+            Species species = speciesOf(code);
+            int index = code & INDEX_MASK;
+            if ((species == Species.RABBIT || (acceptFoxes && species == Species.FOX))
+                    && herdOf(code).alive[index]) {
+                return next;
+            }
+            if (acceptFruit && species == Species.TREE && trees.food[index] > 0) {
+                return next;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Retorna a quantidade de indivíduos vivos de uma espécie.
+     *
+     * @param species A espécie.
+     * @return A contagem da espécie.
+     */
+    public int getCount(Species species) {
+        switch (species) {
+            case FOX:
+                return foxes.size;
+            case RABBIT:
+                return rabbits.size;
+            case HUNTER:
+                return hunters.size;
+            case TREE:
+                return trees.size;
+            case STONE:
+            default:
+                return stones;
+        }
+    }
+
+    /**
+     * @return Uma string descrevendo a população de cada espécie.
+     */
+    public String getPopulationDetails() {
+        StringBuilder builder = new StringBuilder();
+        for (Species species : SPECIES) {
+            builder.append(species.getDisplayName()).append(": ").append(getCount(species)).append(' ');
+        }
+        return builder.toString();
+    }
+
+    /**
+     * @return O passo atual.
+     */
+    public int getStep() {
+        return step;
+    }
+
+    /**
+     * Retorna a grade do campo atual, sem cópia. Cada célula guarda
+     * (Species.ordinal() + 1) << 24 | índice na coluna, ou 0 se vazia. A
+     * grade muda (e é trocada pela outra) no próximo passo.
+     *
+     * @return A ocupação do campo atual.
+     */
+    public CellGrid getGrid() {
+        return grid;
+    }
+
+    /**
+     * @return A grade da camada estática (pedras e árvores), sem cópia.
+     */
+    public CellGrid getFixedGrid() {
+        return fixed;
+    }
+
+    private static int encode(Species species, int index) {
+        return ((species.ordinal() + 1) << INDEX_BITS) | index;
+    }
+
+    private static Species speciesOf(int code) {
+        return SPECIES[(code >>> INDEX_BITS) - 1];
+    }
+
+    private Herd herdOf(int code) {
+        return speciesOf(code) == Species.FOX ? foxes : rabbits;
+    }
+
+    /**
+     * As colunas de uma espécie. Cada índice i de 0 a size - 1 é um
+     * indivíduo.
+     */
+    private class Herd {
+        private final Species species;
+        private int size;
+        private int[] cell = new int[INITIAL_CAPACITY];
+        private int[] age = new int[INITIAL_CAPACITY];
+        /** Nível de comida (raposa), energia (caçador) ou frutos (árvore). */
+        private short[] food = new short[INITIAL_CAPACITY];
+        private byte[] kills = new byte[INITIAL_CAPACITY];
+        private boolean[] alive = new boolean[INITIAL_CAPACITY];
+
+        Herd(Species species) {
+            this.species = species;
+        }
+
+        /**
+         * Acrescenta um indivíduo vivo ao fim das colunas.
+         *
+         * @return O índice do novo indivíduo.
+         */
+        int add(int cellIndex, int initialAge, int initialFood) {
+            if (size == cell.length) {
+                int capacity = size * 2;
+                cell = Arrays.copyOf(cell, capacity);
+                age = Arrays.copyOf(age, capacity);
+                food = Arrays.copyOf(food, capacity);
+                kills = Arrays.copyOf(kills, capacity);
+                alive = Arrays.copyOf(alive, capacity);
+            }
+            if (size > INDEX_MASK) {
+                throw new IllegalStateException("too many " + species.getDisplayName());
+            }
+            cell[size] = cellIndex;
+            age[size] = initialAge;
+            food[size] = (short) initialFood;
+            kills[size] = 0;
+            alive[size] = true;
+            return size++;
+        }
+
+        /**
+         * Remove os mortos trocando cada um pelo último vivo da coluna e
+         * atualiza as referências no próximo campo.
+         */
+        void compact() {
+            int i = 0;
+            while (i < size) {
+                if (alive[i]) {
+                    i++;
+                    continue;
+                }
+                if (nextGrid.get(cell[i]) == encode(species, i)) {
+                    nextGrid.set(cell[i], EMPTY);
+                }
+                int last = --size;
+                if (last != i) {
+                    cell[i] = cell[last];
+                    age[i] = age[last];
+                    food[i] = food[last];
+                    kills[i] = kills[last];
+                    alive[i] = alive[last];
+                    if (nextGrid.get(cell[i]) == encode(species, last)) {
+                        nextGrid.set(cell[i], encode(species, i));
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+/**
+ * Grava as métricas de cada passo em um arquivo CSV, uma linha por passo.
+ * As linhas são montadas em memória e escritas no FileChannel em lotes.
+ * 
+ * Colunas: step, season, população de cada espécie, nascimentos de cada
+ * espécie, mortes de cada espécie por causa e fruit_stock.
+ * 
+ * @author GRUPO 05
+ * @version 2025
+ */
+public class CsvMetricsSink implements MetricsSink {
+    /** Quantidade de caracteres acumulados antes de escrever no arquivo. */
+    private static final int BATCH_CHARS = 64 * 1024;
+
+    /** O arquivo de saída. */
+    private final FileChannel channel;
+    /** As linhas ainda não escritas. */
+    private final StringBuilder pending = new StringBuilder(BATCH_CHARS + 1024);
+
+    /**
+     * Cria (ou sobrescreve) o arquivo CSV e escreve o cabeçalho.
+     * 
+     * @param path O caminho do arquivo.
+     * @throws IOException Se o arquivo não puder ser criado.
+     */
+    public CsvMetricsSink(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        pending.append("step,season");
+        for (Species species : StepMetrics.SPECIES) {
+            pending.append(",population_").append(species.name().toLowerCase(Locale.ROOT));
+        }
+        for (Species species : StepMetrics.SPECIES) {
+            pending.append(",births_").append(species.name().toLowerCase(Locale.ROOT));
+        }
+        for (Species species : StepMetrics.SPECIES) {
+            for (DeathCause cause : StepMetrics.CAUSES) {
+                pending.append(",deaths_").append(species.name().toLowerCase(Locale.ROOT))
+                        .append('_').append(cause.name().toLowerCase(Locale.ROOT));
+            }
+        }
+        pending.append(",fruit_stock\n");
+    }
+
+    @Override
+    public void record(StepMetrics metrics) throws IOException {
+        pending.append(metrics.getStep()).append(',').append(metrics.getSeason());
+        for (Species species : StepMetrics.SPECIES) {
+            pending.append(',').append(metrics.getPopulation(species));
+        }
+        for (Species species : StepMetrics.SPECIES) {
+            pending.append(',').append(metrics.getBirths(species));
+        }
+        for (Species species : StepMetrics.SPECIES) {
+            for (DeathCause cause : StepMetrics.CAUSES) {
+                pending.append(',').append(metrics.getDeaths(species, cause));
+            }
+        }
+        pending.append(',').append(metrics.getFruitStock()).append('\n');
+        if (pending.length() >= BATCH_CHARS) {
+            flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Escreve as linhas pendentes no arquivo.
+     */
+    private void flush() throws IOException {
+        ByteBuffer buffer = StandardCharsets.US_ASCII.encode(pending.toString());
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        pending.setLength(0);
+    }
+}
@@ -0,0 +1,18 @@
+/**
+ * As causas de morte registradas nas métricas da simulação.
+ * 
+ * @author GRUPO 05
+ * @version 2025
+ */
+public enum DeathCause {
+    /** Fome (raposas) ou falta de energia (caçadores). */
+    STARVATION,
+    /** Passou da idade máxima da espécie. */
+    AGE,
+    /** Foi caçado por uma raposa ou por um caçador. */
+    PREDATION,
+    /** Não havia lugar livre para onde ir. */
+    OVERCROWDING,
+    /** Caçador que atingiu o número máximo de abates. */
+    EXHAUSTION
+}
@@ -0,0 +1,77 @@
+import java.util.Arrays;
+
+/**
+ * Camada do campo em vetores contínuos: uma referência por célula e cada
+ * mapa de bits com depth * (largura / 64) palavras. É a escolha mais rápida
+ * enquanto a área cabe na memória.
+ * 
+ * @author GRUPO 05
+ * @version 2025
+ */
+class DenseFieldLayer implements FieldLayer {
+    /** A largura do campo. */
+    private final int width;
+    /** Quantas palavras de 64 bits cada linha ocupa nos mapas de bits. */
+    private final int wordsPerRow;
+    /** O objeto de cada célula (linha * largura + coluna). */
+    private final Object[] cells;
+    /** Os mapas de bits, indexados como OCCUPIED/speciesMap. */
+    private final long[][] maps;
+    /** O hash do conteúdo. */
+    private final FieldHash hash = new FieldHash();
+
+    /**
+     * Cria uma camada vazia.
+     * 
+     * @param depth A profundidade do campo.
+     * @param width A largura do campo.
+     */
+    DenseFieldLayer(int depth, int width) {
+        if ((long) depth * width > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("field too large for dense storage: " + depth + "x" + width);
+        }
+        this.width = width;
+        wordsPerRow = (width + 63) >>> 6;
+        cells = new Object[depth * width];
+        maps = new long[MAPS][depth * wordsPerRow];
+    }
+
+    @Override
+    public Object get(int row, int col) {
+        if ((maps[OCCUPIED][row * wordsPerRow + (col >>> 6)] & (1L << col)) == 0) {
+            return null;
+        }
+        return cells[row * width + col];
+    }
+
+    @Override
+    public long word(int map, int row, int word) {
+        return maps[map][row * wordsPerRow + word];
+    }
+
+    @Override
+    public void put(int row, int col, Object object, boolean concurrent) {
+        int cell = row * width + col;
+        Object previous = FieldLayer.updateMaps(maps, row * wordsPerRow + (col >>> 6), 1L << col, cells[cell],
+                object, concurrent);
+        cells[cell] = object;
+        hash.replace(cell, previous, object, concurrent);
+    }
+
+    /**
+     * Zera os mapas de bits. As referências antigas permanecem no vetor até
+     * serem sobrescritas.
+     */
+    @Override
+    public void clear() {
+        for (long[] map : maps) {
+            Arrays.fill(map, 0);
+        }
+        hash.reset();
+    }
+
+    @Override
+    public long hash() {
+        return hash.get();
+    }
+}
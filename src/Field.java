@@ -1,45 +1,220 @@
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.Random;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * Representa uma grade retangular de posições de campo.
- * Cada posição é capaz de armazenar um único animal.
+ * Cada posição é capaz de armazenar um único animal. Objetos que não se
+ * movem ficam em uma camada estática separada, que persiste entre os passos.
+ * O campo não tem gerador aleatório próprio: as operações aleatórias recebem
+ * o fluxo (RandomStream) de quem as chama.
+ * 
+ * Além das referências, o campo mantém mapas de bits de ocupação por linha
+ * (um bit por célula em palavras long), um para cada camada, e mapas de bits
+ * por espécie. Com eles, procurar uma célula livre ou um vizinho de certa
+ * espécie custa algumas operações em palavras, sem visitar objetos.
+ * 
+ * Cada camada é guardada por um FieldLayer: em vetores contínuos
+ * (DenseFieldLayer) ou, para mundos grandes e quase vazios, em blocos
+ * alocados sob demanda (ChunkedFieldLayer).
  * 
  * @author GRUPO 5
  * @version 2025
  */
 public class Field {
-    /** Um gerador de números aleatórios */
-    private static final Random rand = new Random();
+    /** Semente fixa da tabela de ordens de visita (reprodutível). */
+    private static final long VISIT_ORDER_SEED = 0x5EED_F1E1DL;
+    /** Deslocamentos de linha das 8 posições vizinhas. */
+    static final int[] ROW_OFFSETS = { -1, -1, -1, 0, 0, 1, 1, 1 };
+    /** Deslocamentos de coluna das 8 posições vizinhas. */
+    static final int[] COL_OFFSETS = { -1, 0, 1, -1, 1, -1, 0, 1 };
+    /** Quantidade de ordens de visita pré-sorteadas. */
+    private static final int ORDER_COUNT = 256;
+    /**
+     * Ordens aleatórias de visita da vizinhança (permutações de 0 a 7),
+     * sorteadas uma única vez para evitar embaralhar listas a cada consulta.
+     */
+    private static final byte[][] VISIT_ORDERS = createVisitOrders();
+    /** Quantidade de espécies (tamanho das tabelas de mapas por espécie). */
+    private static final int SPECIES_COUNT = Species.values().length;
+    /** Tentativas aleatórias de randomFreeLocation antes de contar as livres. */
+    private static final int RANDOM_PROBES = 8;
+    /**
+     * Área a partir da qual o campo usa blocos alocados sob demanda
+     * (ChunkedFieldLayer) em vez de vetores contínuos.
+     */
+    static final long CHUNKED_THRESHOLD = 1L << 24;
 
     /** A profundidade e largura do campo. */
     private int depth, width;
-    /** Armazenamento para os animais. */
-    private Object[][] field;
+    /** Quantas palavras de 64 bits cada linha ocupa nos mapas de bits. */
+    private int wordsPerRow;
+    /** A camada dos animais, esvaziada a cada passo por clear(). */
+    private FieldLayer layer;
+    /**
+     * Camada estática (pedras, árvores), compartilhada entre campos criados
+     * a partir deste. Ela nunca é copiada nem esvaziada por clear().
+     */
+    private FieldLayer fixedLayer;
+    /** Se as camadas são divididas em blocos (veja ChunkedFieldLayer). */
+    private boolean chunked;
+    /**
+     * Se true, os bits são escritos com operações atômicas, pois threads
+     * diferentes podem escrever células vizinhas da mesma palavra.
+     */
+    private boolean concurrent;
+    /**
+     * Localizações imutáveis do campo, indexadas por linha e coluna, e
+     * compartilhadas com os campos criados a partir deste. Cada linha é
+     * criada na primeira consulta e publicada com compareAndSet, então uma
+     * thread nunca vê uma linha pela metade. É null nos campos em blocos,
+     * que criam as localizações quando pedidas.
+     */
+    private AtomicReferenceArray<Location[]> locations;
+    /**
+     * Os mapas de distância até as presas (veja FlowFields), compartilhados
+     * entre campos criados a partir deste; null se a percepção de longo
+     * alcance estiver desligada.
+     */
+    private FlowFields flowFields;
 
     /**
-     * Representa um campo com as dimensões fornecidas.
+     * Representa um campo com as dimensões fornecidas. Campos com área
+     * acima de CHUNKED_THRESHOLD são guardados em blocos.
      * 
      * @param depth A profundidade do campo.
      * @param width A largura do campo.
      */
     public Field(int depth, int width) {
+        this(depth, width, (long) depth * width > CHUNKED_THRESHOLD);
+    }
+
+    /**
+     * Representa um campo com as dimensões fornecidas.
+     * 
+     * @param depth   A profundidade do campo.
+     * @param width   A largura do campo.
+     * @param chunked Se true, as células ficam em blocos alocados sob
+     *                demanda e a memória cresce com a população, e não com a
+     *                área; se false, em vetores contínuos (mais rápidos).
+     */
+    public Field(int depth, int width, boolean chunked) {
         this.depth = depth;
         this.width = width;
-        field = new Object[depth][width];
+        this.chunked = chunked;
+        wordsPerRow = (width + 63) >>> 6;
+        layer = createLayer();
+        fixedLayer = createLayer();
+        if (!chunked) {
+            locations = new AtomicReferenceArray<>(depth);
+        }
     }
 
     /**
-     * Esvazia o campo.
+     * Cria um campo vazio do mesmo tamanho que outro, compartilhando com ele
+     * a camada estática e as localizações.
+     * 
+     * @param other O campo cuja camada estática será compartilhada.
+     */
+    public Field(Field other) {
+        this(other.depth, other.width, other.chunked);
+        fixedLayer = other.fixedLayer;
+        locations = other.locations;
+        flowFields = other.flowFields;
+    }
+
+    /**
+     * @return Uma camada vazia do tipo de armazenamento deste campo.
+     */
+    private FieldLayer createLayer() {
+        return chunked ? new ChunkedFieldLayer(depth, width) : new DenseFieldLayer(depth, width);
+    }
+
+    /**
+     * Define se várias threads podem colocar objetos neste campo ao mesmo
+     * tempo (em células diferentes). Nesse caso os mapas de bits são
+     * atualizados com operações atômicas.
+     * 
+     * @param concurrent true para o modo concorrente.
+     */
+    public void setConcurrent(boolean concurrent) {
+        this.concurrent = concurrent;
+    }
+
+    /**
+     * Define os mapas de distância até as presas que os predadores deste
+     * campo seguem. Campos criados depois a partir deste os compartilham.
+     *
+     * @param flowFields Os mapas, ou null para desligar.
+     */
+    public void setFlowFields(FlowFields flowFields) {
+        this.flowFields = flowFields;
+    }
+
+    /**
+     * @return Os mapas de distância até as presas, ou null se a percepção
+     *         de longo alcance estiver desligada.
+     */
+    public FlowFields getFlowFields() {
+        return flowFields;
+    }
+
+    /**
+     * Esvazia o campo, exceto a camada estática. Apenas zera os mapas de
+     * bits (e, em blocos, libera os que ficaram vazios).
      */
     public void clear() {
-        for (int row = 0; row < depth; row++) {
-            for (int col = 0; col < width; col++) {
-                field[row][col] = null;
+        layer.clear();
+    }
+
+    /**
+     * Esvazia a camada estática (compartilhada) do campo.
+     */
+    public void clearStatic() {
+        fixedLayer.clear();
+    }
+
+    /**
+     * Coloca um objeto estático (pedra, árvore) na camada persistente do
+     * campo. Ele continua visível depois de clear() e em todos os campos que
+     * compartilham esta camada.
+     * 
+     * @param object   O objeto a ser colocado.
+     * @param location Onde colocar o objeto.
+     */
+    public void placeStatic(Object object, Location location) {
+        fixedLayer.put(location.getRow(), location.getCol(), object, concurrent);
+    }
+
+    /**
+     * Retorna a localização compartilhada para a linha e coluna fornecidas.
+     * Os campos densos de uma simulação usam a mesma tabela, então nenhuma
+     * localização é criada depois que cada linha é consultada pela primeira
+     * vez; campos em blocos criam uma nova a cada chamada, para não guardar
+     * uma por célula.
+     * 
+     * @param row A linha desejada.
+     * @param col A coluna desejada.
+     * @return A localização (imutável) correspondente.
+     */
+    public Location getLocation(int row, int col) {
+        if (locations == null) {
+            return new Location(row, col);
+        }
+        Location[] rowLocations = locations.get(row);
+        if (rowLocations == null) {
+            // Se duas threads criarem a mesma linha ao mesmo tempo, só a
+            // primeira é publicada e todas passam a usar a mesma cópia.
+            rowLocations = new Location[width];
+            for (int c = 0; c < width; c++) {
+                rowLocations[c] = new Location(row, c);
+            }
+            if (!locations.compareAndSet(row, null, rowLocations)) {
+                rowLocations = locations.get(row);
             }
         }
+        return rowLocations[col];
     }
 
     /**
@@ -52,7 +227,7 @@ public class Field {
      * @param col    Coordenada da coluna da localização.
      */
     public void place(Object object, int row, int col) {
-        place(object, new Location(row, col));
+        layer.put(row, col, object, concurrent);
     }
 
     /**
@@ -64,7 +239,7 @@ public class Field {
      * @param location Onde colocar o objeto.
      */
     public void place(Object object, Location location) {
-        field[location.getRow()][location.getCol()] = object;
+        place(object, location.getRow(), location.getCol());
     }
 
     /**
@@ -79,13 +254,138 @@ public class Field {
 
     /**
      * Retorna o animal na localização fornecida, se houver.
+     * Objetos da camada estática têm prioridade sobre os demais. Em um campo
+     * dividido em blocos, as pedras de um bloco totalmente coberto são uma
+     * única pedra sem localização (veja ChunkedFieldLayer).
      * 
      * @param row A linha desejada.
      * @param col A coluna desejada.
      * @return O animal na localização fornecida, ou null se não houver nenhum.
      */
     public Object getObjectAt(int row, int col) {
-        return field[row][col];
+        return objectAt(row, col);
+    }
+
+    /**
+     * Retorna o objeto em uma célula, considerando a camada estática e o
+     * mapa de ocupação.
+     * 
+     * @param row A linha da célula.
+     * @param col A coluna da célula.
+     * @return O objeto na célula, ou null se ela estiver vazia.
+     */
+    private Object objectAt(int row, int col) {
+        Object fixed = fixedLayer.get(row, col);
+        if (fixed != null) {
+            return fixed;
+        }
+        return layer.get(row, col);
+    }
+
+    /**
+     * @return Se a célula está ocupada em alguma das camadas.
+     */
+    boolean isOccupied(int row, int col) {
+        long bit = 1L << col;
+        int word = col >>> 6;
+        return ((layer.word(FieldLayer.OCCUPIED, row, word) | fixedLayer.word(FieldLayer.OCCUPIED, row, word))
+                & bit) != 0;
+    }
+
+    /**
+     * Lê de um mapa de uma camada os bits das colunas col - 1, col e col + 1
+     * de uma linha (nos bits 0, 1 e 2). Posições fora do campo resultam em 0.
+     */
+    private int rowWindow(FieldLayer bits, int map, int row, int col) {
+        if (row < 0 || row >= depth) {
+            return 0;
+        }
+        int start = col - 1;
+        long value;
+        if (start < 0) {
+            value = bits.word(map, row, 0) << 1;
+        } else {
+            int word = start >>> 6;
+            int shift = start & 63;
+            value = bits.word(map, row, word) >>> shift;
+            if (shift > 61 && word + 1 < wordsPerRow) {
+                value |= bits.word(map, row, word + 1) << (64 - shift);
+            }
+        }
+        return (int) value & 0b111;
+    }
+
+    /**
+     * Lê de um mapa de uma camada a vizinhança 3x3 de uma célula: bit
+     * (dr + 1) * 3 + (dc + 1) para o deslocamento (dr, dc). Posições fora
+     * do campo resultam em 0.
+     */
+    private int window(FieldLayer bits, int map, int row, int col) {
+        return rowWindow(bits, map, row - 1, col)
+                | rowWindow(bits, map, row, col) << 3
+                | rowWindow(bits, map, row + 1, col) << 6;
+    }
+
+    /**
+     * @return As posições da vizinhança 3x3 (como em window) que ficam fora
+     *         do campo.
+     */
+    private int outsideWindow(int row, int col) {
+        int mask = 0;
+        if (row == 0) {
+            mask |= 0b000_000_111;
+        }
+        if (row == depth - 1) {
+            mask |= 0b111_000_000;
+        }
+        if (col == 0) {
+            mask |= 0b001_001_001;
+        }
+        if (col == width - 1) {
+            mask |= 0b100_100_100;
+        }
+        return mask;
+    }
+
+    /**
+     * Converte uma vizinhança 3x3 (como em window) para os 8 vizinhos, na
+     * ordem de ROW_OFFSETS/COL_OFFSETS, descartando a própria célula.
+     */
+    private static int neighbours(int window) {
+        return (window & 0xF) | ((window >>> 5) << 4);
+    }
+
+    /**
+     * Sorteia, com probabilidade uniforme, um dos vizinhos marcados em uma
+     * máscara.
+     * 
+     * @param mask Vizinhos candidatos (bit k = índice k de ROW_OFFSETS).
+     * @param rand O fluxo aleatório de quem chama.
+     * @return O índice do vizinho sorteado, ou -1 se a máscara for vazia.
+     */
+    static int randomNeighbour(int mask, RandomStream rand) {
+        int count = Integer.bitCount(mask);
+        if (count == 0) {
+            return -1;
+        }
+        for (int n = rand.nextInt(count); n > 0; n--) {
+            mask &= mask - 1;
+        }
+        return Integer.numberOfTrailingZeros(mask);
+    }
+
+    /**
+     * Monta uma máscara de espécies para findAdjacent.
+     * 
+     * @param species As espécies aceitas.
+     * @return Uma máscara com o bit Species.ordinal() de cada espécie.
+     */
+    public static int speciesMask(Species... species) {
+        int mask = 0;
+        for (Species s : species) {
+            mask |= 1 << s.ordinal();
+        }
+        return mask;
     }
 
     /**
@@ -95,10 +395,11 @@ public class Field {
      * do campo.
      * 
      * @param location A localização a partir da qual gerar uma adjacência.
+     * @param rand     O fluxo aleatório de quem chama.
      * @return Uma localização válida dentro da área da grade. Este
      *         pode ser o mesmo objeto que o parâmetro location.
      */
-    public Location randomAdjacentLocation(Location location) {
+    public Location randomAdjacentLocation(Location location, RandomStream rand) {
         int row = location.getRow();
         int col = location.getCol();
         // Gera um deslocamento de -1, 0, ou +1 para a linha e coluna atuais.
@@ -108,7 +409,7 @@ public class Field {
         if (nextRow < 0 || nextRow >= depth || nextCol < 0 || nextCol >= width) {
             return location;
         } else if (nextRow != row || nextCol != col) {
-            return new Location(nextRow, nextCol);
+            return getLocation(nextRow, nextCol);
         } else {
             return location;
         }
@@ -122,38 +423,229 @@ public class Field {
      * do campo.
      * 
      * @param location A localização a partir da qual gerar uma adjacência.
+     * @param rand     O fluxo aleatório de quem chama.
      * @return Uma localização válida dentro da área da grade. Esta pode ser o
      *         mesmo objeto que o parâmetro location, ou null se todas as
      *         localizações ao redor estiverem cheias.
      */
-    public Location freeAdjacentLocation(Location location) {
-        Iterator adjacent = adjacentLocations(location);
-        while (adjacent.hasNext()) {
-            Location next = (Location) adjacent.next();
-            if (field[next.getRow()][next.getCol()] == null) {
-                return next;
-            }
+    public Location freeAdjacentLocation(Location location, RandomStream rand) {
+        int row = location.getRow();
+        int col = location.getCol();
+        // Em campos pouco ocupados um vizinho sorteado costuma estar livre.
+        // Recusar o sorteio quando não está mantém a escolha uniforme.
+        int probe = rand.nextInt(ROW_OFFSETS.length);
+        int probeRow = row + ROW_OFFSETS[probe];
+        int probeCol = col + COL_OFFSETS[probe];
+        if (probeRow >= 0 && probeRow < depth && probeCol >= 0 && probeCol < width
+                && !isOccupied(probeRow, probeCol)) {
+            return getLocation(probeRow, probeCol);
+        }
+        int taken = window(layer, FieldLayer.OCCUPIED, row, col)
+                | window(fixedLayer, FieldLayer.OCCUPIED, row, col) | outsideWindow(row, col);
+        int next = randomNeighbour(~neighbours(taken) & 0xFF, rand);
+        if (next >= 0) {
+            return getLocation(row + ROW_OFFSETS[next], col + COL_OFFSETS[next]);
         }
         // verifica se a localização atual está livre
-        if (field[location.getRow()][location.getCol()] == null) {
+        if ((taken & 0b000_010_000) == 0) {
             return location;
         } else {
             return null;
         }
     }
 
+    /**
+     * Sorteia, com probabilidade uniforme, uma localização livre em todo o
+     * campo. Tenta algumas células ao acaso e, se o campo estiver quase
+     * cheio, conta as células livres nos mapas de bits e escolhe uma delas.
+     * 
+     * @param rand O fluxo aleatório de quem chama.
+     * @return Uma localização livre, ou null se o campo estiver cheio.
+     */
+    public Location randomFreeLocation(RandomStream rand) {
+        for (int attempt = 0; attempt < RANDOM_PROBES; attempt++) {
+            int row = rand.nextInt(depth);
+            int col = rand.nextInt(width);
+            if (!isOccupied(row, col)) {
+                return getLocation(row, col);
+            }
+        }
+        long free = 0;
+        for (int row = 0; row < depth; row++) {
+            for (int word = 0; word < wordsPerRow; word++) {
+                free += Long.bitCount(freeWord(row, word));
+            }
+        }
+        if (free == 0) {
+            return null;
+        }
+        long n = (long) (rand.nextDouble() * free);
+        for (int row = 0; row < depth; row++) {
+            for (int word = 0; word < wordsPerRow; word++) {
+                long bits = freeWord(row, word);
+                int count = Long.bitCount(bits);
+                if (n < count) {
+                    for (; n > 0; n--) {
+                        bits &= bits - 1;
+                    }
+                    return getLocation(row, (word << 6) + Long.numberOfTrailingZeros(bits));
+                }
+                n -= count;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Conta quantas células mostram um objeto da espécie dada, somando os
+     * bits dos mapas por espécie. Como em getObjectAt, um objeto da camada
+     * estática esconde o que estiver abaixo dele.
+     * 
+     * @param species A espécie.
+     * @return Quantas células têm um objeto dessa espécie.
+     */
+    public int countSpecies(Species species) {
+        int map = FieldLayer.speciesMap(species);
+        int count = 0;
+        for (int row = 0; row < depth; row++) {
+            for (int word = 0; word < wordsPerRow; word++) {
+                long bits = layer.word(map, row, word) & ~fixedLayer.word(FieldLayer.OCCUPIED, row, word);
+                count += Long.bitCount(bits | fixedLayer.word(map, row, word));
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Retorna um hash do conteúdo do campo (a espécie em cada célula, nas
+     * duas camadas). Ele é mantido a cada colocação (veja FieldHash), então
+     * consultá-lo não percorre o campo. Campos com o mesmo conteúdo têm o
+     * mesmo hash; conteúdos diferentes colidem com probabilidade ~2^-64.
+     * 
+     * @return O hash do campo.
+     */
+    public long getHash() {
+        return layer.hash() ^ Long.rotateLeft(fixedLayer.hash(), 32);
+    }
+
+    /**
+     * @return As células ocupadas da camada estática em uma palavra dos
+     *         mapas de bits.
+     */
+    long staticWord(int row, int word) {
+        return fixedLayer.word(FieldLayer.OCCUPIED, row, word);
+    }
+
+    /**
+     * @param speciesMask As espécies de animais (veja speciesMask).
+     * @param row         A linha.
+     * @param word        Qual palavra da linha (coluna / 64).
+     * @return As células da camada dos animais com uma das espécies, em uma
+     *         palavra dos mapas de bits, sem as escondidas pela camada
+     *         estática (como em getObjectAt).
+     */
+    long speciesWord(int speciesMask, int row, int word) {
+        long bits = 0;
+        for (int s = 0; s < SPECIES_COUNT; s++) {
+            if ((speciesMask & (1 << s)) != 0) {
+                bits |= layer.word(s + 1, row, word);
+            }
+        }
+        return bits & ~fixedLayer.word(FieldLayer.OCCUPIED, row, word);
+    }
+
+    /**
+     * @return As células livres (nas duas camadas) de uma palavra dos mapas
+     *         de bits, sem as colunas além da largura.
+     */
+    private long freeWord(int row, int word) {
+        long bits = ~(layer.word(FieldLayer.OCCUPIED, row, word) | fixedLayer.word(FieldLayer.OCCUPIED, row, word));
+        int tail = width & 63;
+        if (word == wordsPerRow - 1 && tail != 0) {
+            bits &= (1L << tail) - 1;
+        }
+        return bits;
+    }
+
+    /**
+     * Percorre as localizações adjacentes à fornecida em ordem aleatória e
+     * retorna a primeira cujo ocupante satisfaz o critério. Diferente de
+     * adjacentLocations, não cria listas nem embaralha: a ordem é sorteada de
+     * uma tabela de permutações pré-computadas.
+     * 
+     * @param location A localização a partir da qual buscar.
+     * @param filter   O critério aplicado ao ocupante de cada vizinho.
+     * @param rand     O fluxo aleatório de quem chama.
+     * @return A primeira localização aceita, ou null se nenhuma for.
+     */
+    public Location findAdjacent(Location location, CellFilter filter, RandomStream rand) {
+        int row = location.getRow();
+        int col = location.getCol();
+        byte[] order = visitOrder(rand);
+        for (int i = 0; i < order.length; i++) {
+            int nextRow = row + ROW_OFFSETS[order[i]];
+            int nextCol = col + COL_OFFSETS[order[i]];
+            if (nextRow >= 0 && nextRow < depth && nextCol >= 0 && nextCol < width
+                    && filter.accept(objectAt(nextRow, nextCol))) {
+                return getLocation(nextRow, nextCol);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Como findAdjacent, mas só considera vizinhos das espécies da máscara,
+     * lidos dos mapas de bits por espécie. O critério ainda é aplicado a cada
+     * candidato (por exemplo, para recusar animais mortos), em ordem
+     * aleatória, até um ser aceito.
+     * 
+     * @param location    A localização a partir da qual buscar.
+     * @param speciesMask As espécies aceitas (veja speciesMask).
+     * @param filter      O critério aplicado ao ocupante de cada candidato.
+     * @param rand        O fluxo aleatório de quem chama.
+     * @return Uma localização aceita, ou null se nenhuma for.
+     */
+    public Location findAdjacent(Location location, int speciesMask, CellFilter filter, RandomStream rand) {
+        int row = location.getRow();
+        int col = location.getCol();
+        int found = 0;
+        int foundFixed = 0;
+        for (int s = 0; s < SPECIES_COUNT; s++) {
+            if ((speciesMask & (1 << s)) != 0) {
+                int map = s + 1;
+                found |= window(layer, map, row, col);
+                foundFixed |= window(fixedLayer, map, row, col);
+            }
+        }
+        // Como em getObjectAt, o que estiver sob um objeto estático não conta.
+        found = (found & ~window(fixedLayer, FieldLayer.OCCUPIED, row, col)) | foundFixed;
+        int candidates = neighbours(found);
+        while (candidates != 0) {
+            int next = randomNeighbour(candidates, rand);
+            int nextRow = row + ROW_OFFSETS[next];
+            int nextCol = col + COL_OFFSETS[next];
+            if (filter.accept(objectAt(nextRow, nextCol))) {
+                return getLocation(nextRow, nextCol);
+            }
+            candidates &= ~(1 << next);
+        }
+        return null;
+    }
+
     /**
      * Gera um iterador sobre uma lista embaralhada de localizações adjacentes
      * à fornecida. A lista não incluirá a própria localização.
      * Todas as localizações estarão dentro da grade.
+     * Para os laços de cada passo prefira findAdjacent, que não aloca.
      * 
      * @param location A localização a partir da qual gerar adjacências.
+     * @param rand     O fluxo aleatório de quem chama.
      * @return Um iterador sobre localizações adjacentes à fornecida.
      */
-    public Iterator adjacentLocations(Location location) {
+    public Iterator<Location> adjacentLocations(Location location, RandomStream rand) {
         int row = location.getRow();
         int col = location.getCol();
-        LinkedList locations = new LinkedList();
+        List<Location> locations = new ArrayList<>();
         for (int roffset = -1; roffset <= 1; roffset++) {
             int nextRow = row + roffset;
             if (nextRow >= 0 && nextRow < depth) {
@@ -161,15 +653,48 @@ public class Field {
                     int nextCol = col + coffset;
                     // Exclui localizações inválidas e a localização original.
                     if (nextCol >= 0 && nextCol < width && (roffset != 0 || coffset != 0)) {
-                        locations.add(new Location(nextRow, nextCol));
+                        locations.add(getLocation(nextRow, nextCol));
                     }
                 }
             }
         }
-        Collections.shuffle(locations, rand);
+        rand.shuffle(locations);
         return locations.iterator();
     }
 
+    /**
+     * Sorteia uma ordem de visita das 8 posições vizinhas.
+     * 
+     * @param rand O fluxo aleatório de quem chama.
+     * @return Uma permutação dos índices de ROW_OFFSETS/COL_OFFSETS (não
+     *         deve ser modificada).
+     */
+    static byte[] visitOrder(RandomStream rand) {
+        return VISIT_ORDERS[rand.nextInt(ORDER_COUNT)];
+    }
+
+    /**
+     * Sorteia a tabela de ordens de visita da vizinhança.
+     * 
+     * @return ORDER_COUNT permutações aleatórias dos índices 0 a 7.
+     */
+    private static byte[][] createVisitOrders() {
+        RandomStream rand = new RandomStream(VISIT_ORDER_SEED);
+        byte[][] orders = new byte[ORDER_COUNT][ROW_OFFSETS.length];
+        for (byte[] order : orders) {
+            for (int i = 0; i < order.length; i++) {
+                order[i] = (byte) i;
+            }
+            for (int i = order.length - 1; i > 0; i--) {
+                int j = rand.nextInt(i + 1);
+                byte temp = order[i];
+                order[i] = order[j];
+                order[j] = temp;
+            }
+        }
+        return orders;
+    }
+
     /**
      * @return A profundidade do campo.
      */
@@ -0,0 +1,74 @@
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hash incremental (no estilo de Zobrist) do conteúdo de uma camada do
+ * campo: a soma, com estouro, de uma chave pseudoaleatória para cada par
+ * (célula, espécie) ocupado. Colocar ou trocar um objeto soma a chave nova
+ * e subtrai a antiga, então o hash acompanha cada alteração sem percorrer o
+ * campo, e não depende da ordem em que as células foram preenchidas.
+ * 
+ * As chaves são calculadas a partir da célula e da espécie (misturador do
+ * SplitMix64), sem tabela, para servir também aos campos muito grandes. No
+ * modo concorrente as somas vão para um LongAdder, que não disputa uma
+ * única palavra entre as threads.
+ * 
+ * @author GRUPO 05
+ * @version 2025
+ */
+final class FieldHash {
+    /** Soma das chaves alteradas no modo sequencial. */
+    private long sum;
+    /** Soma das chaves alteradas no modo concorrente. */
+    private final LongAdder concurrentSum = new LongAdder();
+
+    /**
+     * Atualiza o hash com a troca do ocupante de uma célula.
+     * 
+     * @param cell       O número da célula (linha * largura + coluna).
+     * @param previous   O ocupante anterior, ou null se estava vazia.
+     * @param object     O novo ocupante, ou null.
+     * @param concurrent Se outras threads podem atualizar ao mesmo tempo.
+     */
+    void replace(long cell, Object previous, Object object, boolean concurrent) {
+        long delta = key(cell, object) - key(cell, previous);
+        if (delta == 0) {
+            return;
+        }
+        if (concurrent) {
+            concurrentSum.add(delta);
+        } else {
+            sum += delta;
+        }
+    }
+
+    /**
+     * @return O hash atual. Não deve ser lido enquanto outras threads o
+     *         atualizam.
+     */
+    long get() {
+        return sum + concurrentSum.sum();
+    }
+
+    /**
+     * Volta ao hash da camada vazia (zero).
+     */
+    void reset() {
+        sum = 0;
+        concurrentSum.reset();
+    }
+
+    /**
+     * @return A chave de um objeto em uma célula (0 para célula vazia).
+     */
+    private static long key(long cell, Object object) {
+        if (object == null) {
+            return 0;
+        }
+        Species species = FieldStats.speciesOf(object);
+        long z = cell * FieldLayer.MAPS + (species == null ? 0 : FieldLayer.speciesMap(species))
+                + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,117 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Armazenamento de uma camada do campo (animais ou objetos estáticos): o
+ * objeto de cada célula e os mapas de bits de ocupação e de cada espécie.
+ * 
+ * Os mapas de bits são lidos em palavras de 64 bits por linha: a palavra
+ * word de uma linha cobre as colunas word * 64 a word * 64 + 63, com a
+ * coluna col no bit col % 64. Colunas além da largura nunca são marcadas.
+ * Cada camada também mantém um hash do seu conteúdo (veja FieldHash).
+ * 
+ * @author GRUPO 05
+ * @version 2025
+ */
+interface FieldLayer {
+    /** Índice do mapa de ocupação; o da espécie s é s.ordinal() + 1. */
+    int OCCUPIED = 0;
+    /** Quantidade de mapas de bits por camada. */
+    int MAPS = Species.values().length + 1;
+    /** Acesso atômico às palavras dos mapas de bits (modo concorrente). */
+    VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    /**
+     * @return O objeto na célula, ou null se ela estiver vazia.
+     */
+    Object get(int row, int col);
+
+    /**
+     * @param map  O mapa (OCCUPIED ou o de uma espécie).
+     * @param row  A linha.
+     * @param word Qual palavra da linha (coluna / 64).
+     * @return A palavra do mapa.
+     */
+    long word(int map, int row, int word);
+
+    /**
+     * Guarda um objeto na célula e atualiza os mapas de bits. Se a célula já
+     * estava ocupada, o ocupante anterior sai do mapa da sua espécie; null
+     * esvazia a célula.
+     * 
+     * @param concurrent Se outras threads podem escrever na mesma palavra.
+     */
+    void put(int row, int col, Object object, boolean concurrent);
+
+    /**
+     * Esvazia a camada.
+     */
+    void clear();
+
+    /**
+     * @return O hash do conteúdo da camada (espécie de cada célula ocupada).
+     */
+    long hash();
+
+    /**
+     * @return O índice do mapa de bits de uma espécie.
+     */
+    static int speciesMap(Species species) {
+        return species.ordinal() + 1;
+    }
+
+    /**
+     * Marca bits em uma palavra, atomicamente se for concorrente.
+     */
+    static void setBits(long[] words, int index, long bits, boolean concurrent) {
+        if (concurrent) {
+            WORDS.getAndBitwiseOr(words, index, bits);
+        } else {
+            words[index] |= bits;
+        }
+    }
+
+    /**
+     * Desmarca bits em uma palavra, atomicamente se for concorrente.
+     */
+    static void clearBits(long[] words, int index, long bits, boolean concurrent) {
+        if (concurrent) {
+            WORDS.getAndBitwiseAnd(words, index, ~bits);
+        } else {
+            words[index] &= ~bits;
+        }
+    }
+
+    /**
+     * Atualiza os mapas de bits de uma célula ao trocar seu ocupante.
+     * 
+     * @param maps     Os mapas de bits (indexados como OCCUPIED/speciesMap).
+     * @param index    O índice da palavra da célula em cada mapa.
+     * @param bit      O bit da célula na palavra.
+     * @param previous O ocupante anterior (ignorado se a célula estava vazia).
+     * @param object   O novo ocupante, ou null.
+     * @return O ocupante anterior, ou null se a célula estava vazia.
+     */
+    static Object updateMaps(long[][] maps, int index, long bit, Object previous, Object object,
+            boolean concurrent) {
+        long[] occupied = maps[OCCUPIED];
+        if ((occupied[index] & bit) != 0) {
+            Species species = FieldStats.speciesOf(previous);
+            if (species != null) {
+                clearBits(maps[speciesMap(species)], index, bit, concurrent);
+            }
+        } else {
+            previous = null;
+        }
+        if (object == null) {
+            clearBits(occupied, index, bit, concurrent);
+            return previous;
+        }
+        setBits(occupied, index, bit, concurrent);
+        Species species = FieldStats.speciesOf(object);
+        if (species != null) {
+            setBits(maps[speciesMap(species)], index, bit, concurrent);
+        }
+        return previous;
+    }
+}
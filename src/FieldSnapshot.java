@@ -0,0 +1,112 @@
+/**
+ * Uma cópia do estado visível do campo em um passo: a espécie de cada
+ * célula, o passo, a estação e o texto da população. É escrita pela thread
+ * da simulação e lida pela thread da interface, nunca ao mesmo tempo (veja
+ * FrameBuffer).
+ * 
+ * @author GRUPO 05
+ * @version 2025
+ */
+public class FieldSnapshot {
+    /** Código de célula vazia em cells. */
+    public static final byte EMPTY = 0;
+
+    /** A profundidade e largura do campo. */
+    private final int depth, width;
+    /** A espécie de cada célula (Species.ordinal() + 1, ou EMPTY). */
+    private final byte[] cells;
+    /** O passo copiado. */
+    private int step;
+    /** A estação no passo copiado. */
+    private String season;
+    /** A descrição da população no passo copiado. */
+    private String populationDetails;
+
+    /**
+     * Cria uma cópia vazia para um campo do tamanho dado.
+     * 
+     * @param depth A profundidade do campo.
+     * @param width A largura do campo.
+     */
+    public FieldSnapshot(int depth, int width) {
+        this.depth = depth;
+        this.width = width;
+        cells = new byte[depth * width];
+    }
+
+    /**
+     * Copia o estado do campo para esta cópia.
+     * 
+     * @param step              O passo atual.
+     * @param season            A estação atual.
+     * @param populationDetails A descrição da população.
+     * @param field             O campo a ser copiado.
+     */
+    public void capture(int step, String season, String populationDetails, Field field) {
+        this.step = step;
+        this.season = season;
+        this.populationDetails = populationDetails;
+        captureCells(field, cells);
+    }
+
+    /**
+     * Define os dados de um quadro cujas células já foram escritas
+     * diretamente em getCells() (por exemplo, por ReplayPlayer).
+     * 
+     * @param step              O passo.
+     * @param season            A estação.
+     * @param populationDetails A descrição da população.
+     */
+    public void setDetails(int step, String season, String populationDetails) {
+        this.step = step;
+        this.season = season;
+        this.populationDetails = populationDetails;
+    }
+
+    /**
+     * Escreve o código da espécie de cada célula do campo.
+     * 
+     * @param field O campo.
+     * @param cells Onde escrever (Species.ordinal() + 1, ou EMPTY), indexado
+     *              por linha * largura + coluna.
+     */
+    static void captureCells(Field field, byte[] cells) {
+        int width = field.getWidth();
+        for (int row = 0; row < field.getDepth(); row++) {
+            int offset = row * width;
+            for (int col = 0; col < width; col++) {
+                Species species = FieldStats.speciesOf(field.getObjectAt(row, col));
+                cells[offset + col] = species == null ? EMPTY : (byte) (species.ordinal() + 1);
+            }
+        }
+    }
+
+    /**
+     * @return A espécie de cada célula (Species.ordinal() + 1, ou EMPTY),
+     *         indexada por linha * largura + coluna. Só deve ser modificado
+     *         por quem escreve o quadro.
+     */
+    public byte[] getCells() {
+        return cells;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getStep() {
+        return step;
+    }
+
+    public String getSeason() {
+        return season;
+    }
+
+    public String getPopulationDetails() {
+        return populationDetails;
+    }
+}
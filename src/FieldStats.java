@@ -1,101 +1,90 @@
-import java.awt.Color;
-import java.util.HashMap;
-import java.util.Iterator;
+import java.util.Arrays;
 
 /**
  * Esta classe coleta e fornece alguns dados estatísticos sobre o estado
- * de um campo. Ela é flexível: criará e manterá um contador
- * para qualquer classe de objeto encontrada dentro do campo.
- * 
+ * de um campo. As contagens são mantidas por espécie em uma tabela indexada
+ * por Species.ordinal(), e o simulador as atualiza incrementalmente a cada
+ * nascimento e morte, então consultá-las custa O(espécies), e não O(área).
+ *
  * @author GRUPO 5
  * @version 2025
  */
 public class FieldStats {
-    /**
-     * Contadores para cada tipo de entidade (raposa, coelho, etc.) na simulação.
-     */
-    private HashMap counters;
-    /** Se os contadores estão atualmente atualizados. */
-    private boolean countsValid;
+    /** As espécies, na ordem dos índices da tabela de contagens. */
+    private static final Species[] SPECIES = Species.values();
+
+    /** Quantos indivíduos de cada espécie existem na simulação. */
+    private final int[] counts;
 
     /**
-     * Constrói um objeto de estatísticas de campo.
+     * Constrói um objeto de estatísticas de campo com todas as contagens
+     * zeradas.
      */
     public FieldStats() {
-        // Configura uma coleção para contadores para cada tipo de animal que
-        // podemos encontrar
-        counters = new HashMap();
-        countsValid = true;
+        counts = new int[SPECIES.length];
     }
 
     /**
      * @return Uma string descrevendo quais animais estão no campo.
      */
-    public String getPopulationDetails(Field field) {
-        StringBuffer buffer = new StringBuffer();
-        if (!countsValid) {
-            generateCounts(field);
-        }
-        Iterator keys = counters.keySet().iterator();
-        while (keys.hasNext()) {
-            Counter info = (Counter) counters.get(keys.next());
-            buffer.append(info.getName());
+    public String getPopulationDetails() {
+        StringBuilder buffer = new StringBuilder();
+        for (Species species : SPECIES) {
+            buffer.append(species.getDisplayName());
             buffer.append(": ");
-            buffer.append(info.getCount());
+            buffer.append(counts[species.ordinal()]);
             buffer.append(' ');
         }
         return buffer.toString();
     }
 
     /**
-     * Invalida o conjunto atual de estatísticas; redefine todas as
-     * contagens para zero.
+     * Redefine todas as contagens para zero.
      */
     public void reset() {
-        countsValid = false;
-        Iterator keys = counters.keySet().iterator();
-        while (keys.hasNext()) {
-            Counter cnt = (Counter) counters.get(keys.next());
-            cnt.reset();
-        }
+        Arrays.fill(counts, 0);
     }
 
     /**
-     * Incrementa a contagem para uma classe de animal.
+     * Incrementa a contagem de uma espécie (nascimento ou criação).
+     *
+     * @param species A espécie.
      */
-    public void incrementCount(Class animalClass) {
-        Counter cnt = (Counter) counters.get(animalClass);
-        if (cnt == null) {
-            // we do not have a counter for this species yet - create one
-            cnt = new Counter(animalClass.getName());
-            counters.put(animalClass, cnt);
-        }
-        cnt.increment();
+    public void increment(Species species) {
+        counts[species.ordinal()]++;
     }
 
     /**
-     * Indica que uma contagem de animais foi concluída.
+     * Decrementa a contagem de uma espécie (morte ou remoção).
+     *
+     * @param species A espécie.
      */
-    public void countFinished() {
-        countsValid = true;
+    public void decrement(Species species) {
+        counts[species.ordinal()]--;
+    }
+
+    /**
+     * Retorna a contagem atual de uma espécie.
+     *
+     * @param species A espécie.
+     * @return Quantos indivíduos da espécie existem.
+     */
+    public int getCount(Species species) {
+        return counts[species.ordinal()];
     }
 
     /**
      * Determina se a simulação ainda é viável.
-     * Isto é, se ela deve continuar rodando.
-     * 
-     * @return true Se houver mais de uma espécie viva.
+     * Isto é, se ela deve continuar rodando. Árvores e pedras não contam:
+     * elas nunca desaparecem e manteriam viável um campo sem interação.
+     *
+     * @return true Se houver mais de uma espécie de animais viva.
      */
-    public boolean isViable(Field field) {
-        // Quantas contagens são diferentes de zero.
+    public boolean isViable() {
+        // Quantas contagens de animais são diferentes de zero.
         int nonZero = 0;
-        if (!countsValid) {
-            generateCounts(field);
-        }
-        Iterator keys = counters.keySet().iterator();
-        while (keys.hasNext()) {
-            Counter info = (Counter) counters.get(keys.next());
-            if (info.getCount() > 0) {
+        for (Species species : SPECIES) {
+            if (species.isAnimal() && counts[species.ordinal()] > 0) {
                 nonZero++;
             }
         }
@@ -103,21 +92,42 @@ public class FieldStats {
     }
 
     /**
-     * Gera contagens do número de raposas e coelhos.
-     * Elas não são mantidas atualizadas conforme raposas e coelhos
-     * são colocados no campo, mas apenas quando uma solicitação
-     * é feita para a informação.
+     * @return true Se ainda houver algum animal vivo.
      */
-    private void generateCounts(Field field) {
-        reset();
-        for (int row = 0; row < field.getDepth(); row++) {
-            for (int col = 0; col < field.getWidth(); col++) {
-                Object animal = field.getObjectAt(row, col);
-                if (animal != null) {
-                    incrementCount(animal.getClass());
-                }
+    public boolean hasAnimals() {
+        for (Species species : SPECIES) {
+            if (species.isAnimal() && counts[species.ordinal()] > 0) {
+                return true;
             }
         }
-        countsValid = true;
+        return false;
+    }
+
+    /**
+     * Refaz as contagens a partir dos mapas de bits por espécie do campo. As
+     * contagens normalmente são mantidas pelo simulador; esta contagem
+     * serve para conferi-las ou para campos montados fora dele.
+     *
+     * @param field O campo a ser contado.
+     */
+    public void generateCounts(Field field) {
+        for (Species species : SPECIES) {
+            counts[species.ordinal()] = field.countSpecies(species);
+        }
+    }
+
+    /**
+     * Retorna a espécie de um objeto do campo.
+     *
+     * @param object Um ator, um obstáculo ou null.
+     * @return A espécie do objeto, ou null se não for um participante.
+     */
+    public static Species speciesOf(Object object) {
+        if (object instanceof Actor) {
+            return ((Actor) object).getSpecies();
+        } else if (object instanceof Obstacles) {
+            return ((Obstacles) object).getSpecies();
+        }
+        return null;
     }
 }
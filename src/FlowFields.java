@@ -0,0 +1,222 @@
+import java.util.Arrays;
+
+/**
+ * Percepção de longo alcance dos predadores: mapas de distância, medidos em
+ * passos de 8 vizinhos e contornando pedras e árvores, até o coelho vivo
+ * mais próximo (para as raposas) e até a presa viva mais próxima, coelho ou
+ * raposa (para os caçadores).
+ *
+ * Os mapas são calculados uma vez por passo, antes dos atores agirem, por
+ * uma busca em largura que parte de todas as presas ao mesmo tempo (veja
+ * update). Depois, cada predador só compara a distância da sua célula com a
+ * dos 8 vizinhos para descer o gradiente, então o custo do passo cresce com
+ * a área do campo, e não com o número de predadores. Durante o passo os
+ * mapas só são lidos, inclusive no modo paralelo.
+ *
+ * A busca para em SimulationParameter.FLOW_FIELD_RANGE passos: presas mais
+ * distantes não são percebidas.
+ *
+ * @author GRUPO 05
+ * @version 2025
+ */
+public class FlowFields {
+    /** Distância das células sem presa ao alcance (ou bloqueadas). */
+    public static final int UNREACHED = Integer.MAX_VALUE;
+    /** As espécies seguidas pelas raposas. */
+    private static final int RABBITS = Field.speciesMask(Species.RABBIT);
+    /** As espécies seguidas pelos caçadores. */
+    private static final int PREY = Field.speciesMask(Species.RABBIT, Species.FOX);
+
+    /** As dimensões do campo. */
+    private final int depth, width;
+    /** Quantas palavras de 64 bits cada linha ocupa nos mapas de bits. */
+    private final int wordsPerRow;
+    /** A maior distância medida. */
+    private final int range;
+    /** Distância até o coelho vivo mais próximo, por célula (linha * largura + coluna). */
+    private final int[] towardRabbits;
+    /** Distância até a presa viva mais próxima, por célula. */
+    private final int[] towardPrey;
+    /** As células bloqueadas (camada estática), um bit por célula. */
+    private final long[] blocked;
+    /** A fila da busca em largura. */
+    private final int[] queue;
+
+    /**
+     * Cria os mapas de um campo, ainda vazios (veja update).
+     *
+     * @param depth A profundidade do campo.
+     * @param width A largura do campo.
+     * @param range A maior distância percebida (positiva).
+     * @throws IllegalArgumentException Se o campo for grande demais para os
+     *                                  mapas (mais de 2^30 células).
+     */
+    public FlowFields(int depth, int width, int range) {
+        if ((long) depth * width > 1 << 30) {
+            throw new IllegalArgumentException("Campo grande demais para os campos de fluxo: "
+                    + depth + "x" + width);
+        }
+        if (range <= 0) {
+            throw new IllegalArgumentException("invalid range: " + range);
+        }
+        this.depth = depth;
+        this.width = width;
+        this.range = range;
+        wordsPerRow = (width + 63) >>> 6;
+        int cells = depth * width;
+        towardRabbits = new int[cells];
+        towardPrey = new int[cells];
+        blocked = new long[depth * wordsPerRow];
+        queue = new int[cells];
+    }
+
+    /**
+     * Recalcula os dois mapas a partir do conteúdo de um campo.
+     *
+     * @param field O campo no início do passo.
+     */
+    public void update(Field field) {
+        for (int row = 0; row < depth; row++) {
+            for (int word = 0; word < wordsPerRow; word++) {
+                blocked[row * wordsPerRow + word] = field.staticWord(row, word);
+            }
+        }
+        compute(field, RABBITS, towardRabbits);
+        compute(field, PREY, towardPrey);
+    }
+
+    /**
+     * Busca em largura a partir de todas as células com um animal vivo das
+     * espécies dadas, até a distância range.
+     */
+    private void compute(Field field, int speciesMask, int[] distance) {
+        Arrays.fill(distance, UNREACHED);
+        int tail = 0;
+        for (int row = 0; row < depth; row++) {
+            for (int word = 0; word < wordsPerRow; word++) {
+                long bits = field.speciesWord(speciesMask, row, word);
+                while (bits != 0) {
+                    int col = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    // Presas mortas no passo anterior ainda aparecem no campo.
+                    if (((Animal) field.getObjectAt(row, col)).isAlive()) {
+                        int cell = row * width + col;
+                        distance[cell] = 0;
+                        queue[tail++] = cell;
+                    }
+                }
+            }
+        }
+        for (int head = 0; head < tail; head++) {
+            int cell = queue[head];
+            int next = distance[cell] + 1;
+            if (next > range) {
+                // A fila está em ordem de distância: as demais também estão no limite.
+                break;
+            }
+            int row = cell / width;
+            int col = cell - row * width;
+            for (int k = 0; k < Field.ROW_OFFSETS.length; k++) {
+                int nextRow = row + Field.ROW_OFFSETS[k];
+                int nextCol = col + Field.COL_OFFSETS[k];
+                if (nextRow < 0 || nextRow >= depth || nextCol < 0 || nextCol >= width) {
+                    continue;
+                }
+                int nextCell = nextRow * width + nextCol;
+                if (distance[nextCell] == UNREACHED && !isBlocked(nextRow, nextCol)) {
+                    distance[nextCell] = next;
+                    queue[tail++] = nextCell;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return Se a célula tem um objeto estático (pedra ou árvore).
+     */
+    private boolean isBlocked(int row, int col) {
+        return (blocked[row * wordsPerRow + (col >>> 6)] & (1L << col)) != 0;
+    }
+
+    /**
+     * @param row A linha.
+     * @param col A coluna.
+     * @return A distância da célula até o coelho vivo mais próximo, ou
+     *         UNREACHED.
+     */
+    public int distanceToRabbit(int row, int col) {
+        return towardRabbits[row * width + col];
+    }
+
+    /**
+     * @param row A linha.
+     * @param col A coluna.
+     * @return A distância da célula até a presa viva mais próxima, ou
+     *         UNREACHED.
+     */
+    public int distanceToPrey(int row, int col) {
+        return towardPrey[row * width + col];
+    }
+
+    /**
+     * Escolhe um passo em direção ao coelho vivo mais próximo.
+     *
+     * @param updatedField O campo para o qual o animal se move.
+     * @param location     Onde o animal está.
+     * @param rand         O fluxo aleatório do animal (para desempates).
+     * @return Um vizinho livre mais perto de um coelho, ou null se não houver
+     *         coelho ao alcance ou nenhum vizinho mais perto estiver livre.
+     */
+    public Location stepTowardRabbit(Field updatedField, Location location, RandomStream rand) {
+        return descend(towardRabbits, updatedField, location, rand);
+    }
+
+    /**
+     * Escolhe um passo em direção à presa viva (coelho ou raposa) mais
+     * próxima.
+     *
+     * @param updatedField O campo para o qual o animal se move.
+     * @param location     Onde o animal está.
+     * @param rand         O fluxo aleatório do animal (para desempates).
+     * @return Um vizinho livre mais perto de uma presa, ou null se não houver
+     *         presa ao alcance ou nenhum vizinho mais perto estiver livre.
+     */
+    public Location stepTowardPrey(Field updatedField, Location location, RandomStream rand) {
+        return descend(towardPrey, updatedField, location, rand);
+    }
+
+    /**
+     * Sorteia, entre os vizinhos livres de menor distância que a da célula
+     * atual, o próximo passo.
+     */
+    private Location descend(int[] distance, Field updatedField, Location location, RandomStream rand) {
+        int row = location.getRow();
+        int col = location.getCol();
+        int here = distance[row * width + col];
+        if (here == UNREACHED) {
+            return null;
+        }
+        int candidates = 0;
+        for (int k = 0; k < Field.ROW_OFFSETS.length; k++) {
+            int nextRow = row + Field.ROW_OFFSETS[k];
+            int nextCol = col + Field.COL_OFFSETS[k];
+            if (nextRow >= 0 && nextRow < depth && nextCol >= 0 && nextCol < width
+                    && distance[nextRow * width + nextCol] < here
+                    && !updatedField.isOccupied(nextRow, nextCol)) {
+                candidates |= 1 << k;
+            }
+        }
+        int next = Field.randomNeighbour(candidates, rand);
+        if (next < 0) {
+            return null;
+        }
+        return updatedField.getLocation(row + Field.ROW_OFFSETS[next], col + Field.COL_OFFSETS[next]);
+    }
+
+    /**
+     * @return A maior distância percebida.
+     */
+    public int getRange() {
+        return range;
+    }
+}
@@ -1,6 +1,4 @@
 import java.util.List;
-import java.util.Iterator;
-import java.util.Random;
 
 /**
  * Um modelo simples de uma raposa.
@@ -10,25 +8,14 @@ import java.util.Random;
  * @version 2025
  */
 public class Fox extends Animal implements HuntersPreys {
-    // Características compartilhadas por todas as raposas (campos estáticos).
+    // As características da espécie (idade máxima, ninhada, valor nutricional
+    // de um coelho...) vêm do SimulationConfig da simulação.
 
-    /** A idade na qual uma raposa pode começar a procriar. */
-    private static final int BREEDING_AGE = 10;
-    /** A idade até a qual uma raposa pode viver. */
-    private static final int MAX_AGE = 150;
-    /** A probabilidade de uma raposa procriar. */
-    private static final double BREEDING_PROBABILITY = 0.4;
-    /** O número máximo de nascimentos (tamanho da ninhada). */
-    private static final int MAX_LITTER_SIZE = 3;
-    /**
-     * O valor nutricional de um único coelho. Com efeito, este é o
-     * número de passos que uma raposa pode dar antes de ter que comer novamente.
-     */
-    private static final int RABBIT_FOOD_VALUE = 4;
-    /**
-     * Um gerador de números aleatórios compartilhado para controlar a reprodução.
-     */
-    private static final Random rand = new Random();
+    /** Critério de busca: um coelho ainda vivo. */
+    private static final CellFilter LIVE_RABBIT = occupant -> occupant instanceof Rabbit
+            && ((Rabbit) occupant).isAlive();
+    /** Espécies candidatas na busca por comida. */
+    private static final int RABBITS = Field.speciesMask(Species.RABBIT);
 
     // Características individuais (campos de instância).
 
@@ -40,18 +27,35 @@ public class Fox extends Animal implements HuntersPreys {
      * e sem fome) ou com idade aleatória.
      * 
      * @param randomAge Se true, a raposa terá idade e nível de fome aleatórios.
+     * @param rand      O fluxo aleatório próprio do animal.
+     * @param config    Os parâmetros da simulação.
      */
-    public Fox(boolean randomAge) {
-        super();
+    public Fox(boolean randomAge, RandomStream rand, SimulationConfig config) {
+        super(rand, config);
+        int foodValue = config.getInt(SimulationParameter.FOX_RABBIT_FOOD_VALUE);
         if (randomAge) {
-            setAge(rand.nextInt(MAX_AGE));
-            foodLevel = rand.nextInt(RABBIT_FOOD_VALUE);
+            setAge(getRandom().nextInt(getMaxAge()));
+            foodLevel = getRandom().nextInt(foodValue);
         } else {
             // deixa a idade em 0
-            foodLevel = RABBIT_FOOD_VALUE;
+            foodLevel = foodValue;
         }
     }
 
+    /**
+     * Recria uma raposa salva (veja Checkpoint).
+     * 
+     * @param rand      O fluxo aleatório salvo do animal.
+     * @param config    Os parâmetros da simulação.
+     * @param age       A idade.
+     * @param foodLevel O nível de comida.
+     */
+    Fox(RandomStream rand, SimulationConfig config, int age, int foodLevel) {
+        super(rand, config);
+        setAge(age);
+        this.foodLevel = foodLevel;
+    }
+
     /**
      * Isso é o que a raposa faz na maior parte do tempo: ela caça
      * coelhos. No processo, ela pode procriar, morrer de fome
@@ -69,16 +73,20 @@ public class Fox extends Animal implements HuntersPreys {
             // Novas raposas nascem em localizações adjacentes.
             int births = breed();
             for (int b = 0; b < births; b++) {
-                Fox newFox = new Fox(false);
+                Fox newFox = new Fox(false, getRandom().split(), getConfig());
                 newFoxes.add(newFox);
-                Location loc = updatedField.randomAdjacentLocation(getLocation());
+                Location loc = updatedField.randomAdjacentLocation(getLocation(), getRandom());
                 newFox.setLocation(loc);
                 updatedField.place(newFox, loc);
             }
             // Move-se em direção à fonte de comida se encontrada.
             Location newLocation = findFood(currentField, getLocation());
+            if (newLocation == null && currentField.getFlowFields() != null) {
+                // Sem coelho ao lado: segue em direção ao mais próximo.
+                newLocation = currentField.getFlowFields().stepTowardRabbit(updatedField, getLocation(), getRandom());
+            }
             if (newLocation == null) { // no food found - move randomly
-                newLocation = updatedField.freeAdjacentLocation(getLocation());
+                newLocation = updatedField.freeAdjacentLocation(getLocation(), getRandom());
             }
             if (newLocation != null) {
                 setLocation(newLocation);
@@ -86,7 +94,7 @@ public class Fox extends Animal implements HuntersPreys {
             } else {
                 // não pode nem se mover nem ficar - superpopulação - todas as localizações
                 // ocupadas
-                setDead();
+                setDead(DeathCause.OVERCROWDING);
             }
         }
     }
@@ -97,7 +105,7 @@ public class Fox extends Animal implements HuntersPreys {
     private void incrementHunger() {
         foodLevel--;
         if (foodLevel <= 0) {
-            setDead();
+            setDead(DeathCause.STARVATION);
         }
     }
 
@@ -109,40 +117,44 @@ public class Fox extends Animal implements HuntersPreys {
      * @return Onde a comida foi encontrada, ou null se não foi.
      */
     private Location findFood(Field field, Location location) {
-        Iterator adjacentLocations = field.adjacentLocations(location);
-
-        while (adjacentLocations.hasNext()) {
-            Location where = (Location) adjacentLocations.next();
-            Object animal = field.getObjectAt(where);
-            if (animal instanceof Rabbit) {
-                Rabbit rabbit = (Rabbit) animal;
-                if (rabbit.isAlive()) {
-                    rabbit.setDead(); // Substituiu setEaten por setDead
-                    foodLevel = RABBIT_FOOD_VALUE;
-                    return where;
-                }
-            }
+        Location where = field.findAdjacent(location, RABBITS, LIVE_RABBIT, getRandom());
+        if (where != null) {
+            Rabbit rabbit = (Rabbit) field.getObjectAt(where);
+            rabbit.setDead(DeathCause.PREDATION); // Substituiu setEaten por setDead
+            foodLevel = getConfig().getInt(SimulationParameter.FOX_RABBIT_FOOD_VALUE);
         }
-        return null;
+        return where;
+    }
+
+    /**
+     * @return O nível de comida atual da raposa.
+     */
+    int getFoodLevel() {
+        return foodLevel;
+    }
+
+    @Override
+    public Species getSpecies() {
+        return Species.FOX;
     }
 
     @Override
     public int getMaxAge() {
-        return MAX_AGE;
+        return getConfig().getInt(SimulationParameter.FOX_MAX_AGE);
     }
 
     @Override
     public double getBreedingProbability() {
-        return BREEDING_PROBABILITY;
+        return getConfig().get(SimulationParameter.FOX_BREEDING_PROBABILITY);
     }
 
     @Override
     public int getMaxLitterSize() {
-        return MAX_LITTER_SIZE;
+        return getConfig().getInt(SimulationParameter.FOX_MAX_LITTER_SIZE);
     }
 
     @Override
     public boolean canBreed() {
-        return getAge() >= BREEDING_AGE;
+        return getAge() >= getConfig().getInt(SimulationParameter.FOX_BREEDING_AGE);
     }
 }
\ No newline at end of file
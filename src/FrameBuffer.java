@@ -0,0 +1,91 @@
+/**
+ * Troca de quadros entre a thread da simulação e a thread da interface
+ * (EDT), com três cópias do campo (triple buffering).
+ * 
+ * A simulação escreve sempre na cópia de trás e a publica trocando-a com a
+ * do meio; a interface, no seu próprio ritmo, troca a do meio com a da
+ * frente e desenha a da frente. Nenhum lado espera pelo outro, a interface
+ * sempre desenha o quadro mais recente e os passos intermediários são
+ * pulados. Para não copiar o campo a cada passo, a simulação só captura um
+ * quadro quando o intervalo mínimo entre quadros já passou.
+ * 
+ * @author GRUPO 05
+ * @version 2025
+ */
+public class FrameBuffer {
+    /** A cópia sendo escrita pela simulação. */
+    private FieldSnapshot back;
+    /** A última cópia publicada e ainda não pega pela interface. */
+    private FieldSnapshot middle;
+    /** A cópia sendo desenhada pela interface. */
+    private FieldSnapshot front;
+    /** Se a cópia do meio é mais nova que a da frente. */
+    private boolean fresh;
+    /** Intervalo mínimo entre quadros capturados, em nanossegundos. */
+    private final long frameIntervalNanos;
+    /** Quando o último quadro foi publicado. */
+    private long lastPublish;
+
+    /**
+     * Cria a troca de quadros para um campo do tamanho dado.
+     * 
+     * @param depth     A profundidade do campo.
+     * @param width     A largura do campo.
+     * @param targetFps Quantos quadros por segundo capturar, no máximo.
+     */
+    public FrameBuffer(int depth, int width, int targetFps) {
+        back = new FieldSnapshot(depth, width);
+        middle = new FieldSnapshot(depth, width);
+        front = new FieldSnapshot(depth, width);
+        frameIntervalNanos = 1_000_000_000L / Math.max(targetFps, 1);
+        lastPublish = System.nanoTime() - frameIntervalNanos;
+    }
+
+    /**
+     * Indica se já é hora de capturar um novo quadro (lado da simulação).
+     * 
+     * @return true se o intervalo mínimo desde o último quadro passou.
+     */
+    public boolean isFrameDue() {
+        return System.nanoTime() - lastPublish >= frameIntervalNanos;
+    }
+
+    /**
+     * Retorna a cópia em que a simulação deve escrever o próximo quadro.
+     * Só deve ser usada pela thread da simulação.
+     * 
+     * @return A cópia de trás.
+     */
+    public FieldSnapshot getBackBuffer() {
+        return back;
+    }
+
+    /**
+     * Publica a cópia de trás como o quadro mais recente (lado da
+     * simulação).
+     */
+    public synchronized void publish() {
+        FieldSnapshot temp = middle;
+        middle = back;
+        back = temp;
+        fresh = true;
+        lastPublish = System.nanoTime();
+    }
+
+    /**
+     * Pega o quadro mais recente para desenhar (lado da interface).
+     * 
+     * @return O quadro novo, ou null se nada foi publicado desde a última
+     *         chamada.
+     */
+    public synchronized FieldSnapshot takeLatest() {
+        if (!fresh) {
+            return null;
+        }
+        FieldSnapshot temp = front;
+        front = middle;
+        middle = temp;
+        fresh = false;
+        return front;
+    }
+}
@@ -0,0 +1,42 @@
+import java.util.Arrays;
+
+/**
+ * Grade de células em um vetor int no heap. É a grade padrão do motor
+ * orientado a dados.
+ * 
+ * @author GRUPO 05
+ * @version 2025
+ */
+public class HeapCellGrid implements CellGrid {
+    /** Os códigos das células. */
+    private final int[] cells;
+
+    /**
+     * Cria uma grade com todas as células zeradas.
+     * 
+     * @param size Quantas células a grade tem.
+     */
+    public HeapCellGrid(int size) {
+        cells = new int[size];
+    }
+
+    @Override
+    public int get(int cell) {
+        return cells[cell];
+    }
+
+    @Override
+    public void set(int cell, int code) {
+        cells[cell] = code;
+    }
+
+    @Override
+    public void fill(int code) {
+        Arrays.fill(cells, code);
+    }
+
+    @Override
+    public int size() {
+        return cells.length;
+    }
+}
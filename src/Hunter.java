@@ -1,6 +1,4 @@
 import java.util.List;
-import java.util.Iterator;
-import java.util.Random;
 
 /**
  * Modelo de um Caçador (Humano).
@@ -12,24 +10,19 @@ import java.util.Random;
  * @version 2025
  */
 public class Hunter extends Animal {
-    // Características estáticas.
-
-    /** Depois de matar certa quantidade de animais, o caçador morre */
-    private static final int MAX_KILLS = 100;
-    /** Quantidade de abates necessários para se reproduzir. */
-    private static final int KILLS_TO_BREED = 3;
-    /** Energia máxima. */
-    private static final int MAX_ENERGY = 150;
-    /** Energia perdida por passo. */
-    private static final int ENERGY_LOSS = 1;
-    /** Tamanho máximo da ninhada. */
-    private static final int MAX_LITTER_SIZE = 3;
-    /** Probabilidade de reprodução. */
-    private static final double BREEDING_PROBABILITY = 0.50;
-    /** Idade máxima. */
-    private static final int MAX_AGE = 50;
-    /** Gerador de números aleatórios. */
-    private static final Random rand = new Random();
+    // As características da espécie (energia máxima, abates para procriar...)
+    // vêm do SimulationConfig da simulação.
+
+    /** Critério de busca: uma presa (coelho ou raposa) ainda viva. */
+    private static final CellFilter LIVE_PREY = occupant -> occupant instanceof HuntersPreys
+            && ((Animal) occupant).isAlive();
+    /** Critério de busca com energia baixa: árvore com frutos ou presa viva. */
+    private static final CellFilter FRUIT_OR_PREY = occupant -> (occupant instanceof Tree
+            && ((Tree) occupant).hasFruit()) || LIVE_PREY.accept(occupant);
+    /** Espécies candidatas na busca por presas. */
+    private static final int PREY = Field.speciesMask(Species.RABBIT, Species.FOX);
+    /** Espécies candidatas na busca por presas ou frutos. */
+    private static final int PREY_OR_TREES = Field.speciesMask(Species.RABBIT, Species.FOX, Species.TREE);
 
     // Características individuais.
 
@@ -42,17 +35,35 @@ public class Hunter extends Animal {
      * Cria um novo caçador.
      * 
      * @param randomAge Se true, o caçador terá idade e energia aleatórias.
+     * @param rand      O fluxo aleatório próprio do animal.
+     * @param config    Os parâmetros da simulação.
      */
-    public Hunter(boolean randomAge) {
-        super();
+    public Hunter(boolean randomAge, RandomStream rand, SimulationConfig config) {
+        super(rand, config);
         killCount = 0;
         if (randomAge) {
-            energy = rand.nextInt(MAX_ENERGY);
+            energy = getRandom().nextInt(getMaxEnergy());
         } else {
-            energy = MAX_ENERGY;
+            energy = getMaxEnergy();
         }
     }
 
+    /**
+     * Recria um caçador salvo (veja Checkpoint).
+     * 
+     * @param rand      O fluxo aleatório salvo do animal.
+     * @param config    Os parâmetros da simulação.
+     * @param age       A idade.
+     * @param energy    A energia.
+     * @param killCount Quantos animais abateu.
+     */
+    Hunter(RandomStream rand, SimulationConfig config, int age, int energy, int killCount) {
+        super(rand, config);
+        setAge(age);
+        this.energy = energy;
+        this.killCount = killCount;
+    }
+
     /**
      * O comportamento do caçador a cada passo.
      * Ele perde energia, caça ou coleta frutos, e tenta se reproduzir.
@@ -62,16 +73,18 @@ public class Hunter extends Animal {
         incrementAge();
         decresceEnergy();
 
-        if (energy <= 0 || killCount >= MAX_KILLS) {
-            setDead(); // Morre de fome/exaustão
+        if (energy <= 0) {
+            setDead(DeathCause.STARVATION); // Morre de fome
+        } else if (killCount >= getConfig().getInt(SimulationParameter.HUNTER_MAX_KILLS)) {
+            setDead(DeathCause.EXHAUSTION); // Morre de exaustão
         }
 
         if (isAlive()) {
             int births = breed();
             for (int b = 0; b < births; b++) {
-                Hunter newHunter = new Hunter(false);
+                Hunter newHunter = new Hunter(false, getRandom().split(), getConfig());
                 newHunters.add(newHunter);
-                Location loc = updatedField.randomAdjacentLocation(getLocation());
+                Location loc = updatedField.randomAdjacentLocation(getLocation(), getRandom());
                 newHunter.setLocation(loc);
                 updatedField.place(newHunter, loc);
             }
@@ -80,9 +93,13 @@ public class Hunter extends Animal {
             // Move-se procurando comida (Frutos ou Presas)
             Location newLocation = findResources(currentField, getLocation());
 
+            if (newLocation == null && currentField.getFlowFields() != null) {
+                // Sem presa ao lado: segue em direção à mais próxima.
+                newLocation = currentField.getFlowFields().stepTowardPrey(updatedField, getLocation(), getRandom());
+            }
             if (newLocation == null) {
                 // Se não encontrou recurso, move-se aleatoriamente
-                newLocation = updatedField.freeAdjacentLocation(getLocation());
+                newLocation = updatedField.freeAdjacentLocation(getLocation(), getRandom());
             }
 
             if (newLocation != null) {
@@ -90,7 +107,7 @@ public class Hunter extends Animal {
                 updatedField.place(this, newLocation);
             } else {
                 // Superpopulação - sem lugar para ir
-                setDead();
+                setDead(DeathCause.OVERCROWDING);
             }
         }
     }
@@ -107,42 +124,55 @@ public class Hunter extends Animal {
         if (location == null)
             return null;
 
-        Iterator adjacentLocations = field.adjacentLocations(location);
-        while (adjacentLocations.hasNext()) {
-            Location where = (Location) adjacentLocations.next();
-            Object object = field.getObjectAt(where);
-
-            // Estratégia: Se energia baixa, procura Árvore com fruto.
-            if (energy < (MAX_ENERGY * 0.4)) {
-                if (object instanceof Tree) {
-                    Tree tree = (Tree) object;
-                    if (tree.hasFruit()) {
-                        int food = tree.pickFruit();
-                        energy += food;
-                        if (energy > MAX_ENERGY)
-                            energy = MAX_ENERGY;
-                        // Não movemos para cima da árvore, apenas comemos.
-                        return null;
-                    }
-                }
-            }
-
-            // Se energia ok, ou não achou fruta, caça coelhos ou raposas.
-            if (object instanceof HuntersPreys) {
-                Animal prey = (Animal) object;
-                if (prey.isAlive()) {
-                    prey.setDead(); // Mata a presa
-                    killCount++;
-                    // Caçadores ocupam o lugar da presa morta
-                    return where;
-                }
-            }
+        // Estratégia: Se energia baixa, também aceita Árvore com fruto.
+        boolean hungry = energy < (getMaxEnergy() * 0.4);
+        Location where = hungry
+                ? field.findAdjacent(location, PREY_OR_TREES, FRUIT_OR_PREY, getRandom())
+                : field.findAdjacent(location, PREY, LIVE_PREY, getRandom());
+        if (where == null) {
+            return null;
+        }
+        Object object = field.getObjectAt(where);
+        if (object instanceof Tree) {
+            int food = ((Tree) object).pickFruit();
+            energy += food;
+            if (energy > getMaxEnergy())
+                energy = getMaxEnergy();
+            // Não movemos para cima da árvore, apenas comemos.
+            return null;
         }
-        return null;
+
+        // Caça coelhos ou raposas.
+        Animal prey = (Animal) object;
+        prey.setDead(DeathCause.PREDATION); // Mata a presa
+        killCount++;
+        // Caçadores ocupam o lugar da presa morta
+        return where;
+    }
+
+    /**
+     * @return A energia atual do caçador.
+     */
+    int getEnergy() {
+        return energy;
+    }
+
+    /**
+     * @return Quantos animais o caçador abateu.
+     */
+    int getKillCount() {
+        return killCount;
+    }
+
+    /**
+     * @return A energia máxima de um caçador.
+     */
+    private int getMaxEnergy() {
+        return getConfig().getInt(SimulationParameter.HUNTER_MAX_ENERGY);
     }
 
     private void decresceEnergy() {
-        energy -= ENERGY_LOSS;
+        energy -= getConfig().getInt(SimulationParameter.HUNTER_ENERGY_LOSS);
     }
 
     @Override
@@ -150,23 +180,38 @@ public class Hunter extends Animal {
         return energy > 0;
     }
 
+    /**
+     * O caçador só sai do campo quando a energia acaba (veja isAlive), então a
+     * causa é sempre fome, mesmo que o caçador tenha sido marcado antes por
+     * outra causa ou ainda não tenha agido.
+     */
+    @Override
+    public DeathCause getDeathCause() {
+        return isAlive() ? null : DeathCause.STARVATION;
+    }
+
+    @Override
+    public Species getSpecies() {
+        return Species.HUNTER;
+    }
+
     @Override
     public boolean canBreed() {
-        return killCount >= KILLS_TO_BREED;
+        return killCount >= getConfig().getInt(SimulationParameter.HUNTER_KILLS_TO_BREED);
     }
 
     @Override
     public int getMaxLitterSize() {
-        return MAX_LITTER_SIZE;
+        return getConfig().getInt(SimulationParameter.HUNTER_MAX_LITTER_SIZE);
     }
 
     @Override
     public int getMaxAge() {
-        return MAX_AGE;
+        return getConfig().getInt(SimulationParameter.HUNTER_MAX_AGE);
     }
 
     @Override
     public double getBreedingProbability() {
-        return BREEDING_PROBABILITY;
+        return getConfig().get(SimulationParameter.HUNTER_BREEDING_PROBABILITY);
     }
 }
\ No newline at end of file
@@ -1,14 +1,16 @@
 /**
  * Representa uma localização em uma grade retangular.
+ * Localizações são imutáveis; o campo mantém uma tabela compartilhada delas
+ * (veja Field.getLocation) para que não precisem ser recriadas a cada passo.
  * 
  * @author GRUPO 05
  * @version 2025
  */
 public class Location {
     /** Posição da linha */
-    private int row;
+    private final int row;
     /** Posição da coluna */
-    private int col;
+    private final int col;
 
     /**
      * Representa uma linha e coluna.
@@ -43,12 +45,13 @@ public class Location {
     }
 
     /**
-     * Usa os 16 bits superiores para o valor da linha e a parte inferior para
-     * a coluna. Exceto para grades muito grandes, isso deve fornecer um
-     * código hash único para cada par (linha, coluna).
+     * Combina linha e coluna em um long e espalha os bits com uma
+     * multiplicação, de modo que grades com mais de 65535 colunas não
+     * produzam colisões sistemáticas.
      */
     public int hashCode() {
-        return (row << 16) + col;
+        long packed = ((long) row << 32) | (col & 0xFFFFFFFFL);
+        return Long.hashCode(packed * 0x9E3779B97F4A7C15L);
     }
 
     /**
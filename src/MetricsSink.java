@@ -0,0 +1,28 @@
+import java.io.IOException;
+
+/**
+ * Destino das métricas de cada passo da simulação (veja
+ * Simulator.setMetricsSink). Implementações devem acumular os registros em
+ * lotes e escrever de forma bufferizada, para não atrasar o laço principal.
+ * 
+ * @author GRUPO 05
+ * @version 2025
+ */
+public interface MetricsSink extends AutoCloseable {
+    /**
+     * Registra as métricas de um passo. O objeto é reutilizado pelo
+     * simulador e não deve ser guardado.
+     * 
+     * @param metrics As métricas do passo.
+     * @throws IOException Se a escrita falhar.
+     */
+    void record(StepMetrics metrics) throws IOException;
+
+    /**
+     * Escreve os registros pendentes e libera o arquivo.
+     * 
+     * @throws IOException Se a escrita falhar.
+     */
+    @Override
+    void close() throws IOException;
+}
@@ -2,5 +2,14 @@
  * Interface para marcar quais atores da simulação são obstaculos
  */
 public interface Obstacles {
+    /**
+     * @return A localização do obstáculo, ou null se ele for a pedra genérica
+     *         de um bloco sólido do campo (veja Stone.getLocation).
+     */
     Location getLocation();
+
+    /**
+     * @return A espécie (tipo) do obstáculo.
+     */
+    Species getSpecies();
 }
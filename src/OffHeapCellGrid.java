@@ -0,0 +1,174 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+/**
+ * Grade de células fora do heap, em memória direta ou mapeada de um
+ * arquivo. O coletor de lixo não percorre as células, e a grade pode passar
+ * do tamanho do heap. Uma grade mapeada pode ser lida por outras
+ * ferramentas direto do arquivo, sem cópia: cada célula é um int32
+ * little-endian, na ordem linha * largura + coluna.
+ * 
+ * As grades de um arquivo mapeado por mapped() ficam depois de um
+ * cabeçalho de HEADER_BYTES bytes, também little-endian: o índice da região
+ * que guarda o campo atual (0 ou 1, veja markCurrent) e o passo em que ela
+ * passou a ser a atual.
+ * 
+ * Um ByteBuffer tem no máximo 2 GB, então as células ficam em pedaços de
+ * 2^28 (1 GB cada), e a grade pode ter até Integer.MAX_VALUE células.
+ * 
+ * @author GRUPO 05
+ * @version 2025
+ */
+public class OffHeapCellGrid implements CellGrid {
+    /** log2 da quantidade de células de cada pedaço. */
+    private static final int CHUNK_SHIFT = 28;
+    /** Máscara do índice dentro do pedaço. */
+    private static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+    /** Bytes por célula. */
+    private static final int CELL_BYTES = Integer.BYTES;
+    /** Células escritas de uma vez por fill(). */
+    private static final int FILL_BLOCK = 4096;
+    /** Tamanho do cabeçalho dos arquivos criados por mapped(). */
+    public static final int HEADER_BYTES = 2 * Integer.BYTES;
+
+    /** Os pedaços da grade. */
+    private final IntBuffer[] chunks;
+    /** Quantas células a grade tem. */
+    private final int size;
+    /** O cabeçalho do arquivo (índice da região atual e passo), ou null. */
+    private IntBuffer header;
+    /** O índice da região desta grade no arquivo. */
+    private int region;
+
+    /**
+     * Cria uma grade em memória direta, com todas as células zeradas.
+     * 
+     * @param size Quantas células a grade tem.
+     */
+    public OffHeapCellGrid(int size) {
+        this.size = size;
+        chunks = new IntBuffer[chunkCount(size)];
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = ByteBuffer.allocateDirect(chunkCells(size, i) * CELL_BYTES)
+                    .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        }
+    }
+
+    /**
+     * Cria uma grade mapeada de uma região de um arquivo. O arquivo cresce
+     * se for preciso; as células da região mantêm o conteúdo que tinham.
+     * 
+     * @param channel  O arquivo, aberto para leitura e escrita.
+     * @param position Onde a região começa, em bytes.
+     * @param size     Quantas células a grade tem.
+     * @throws IOException Se o mapeamento falhar.
+     */
+    public OffHeapCellGrid(FileChannel channel, long position, int size) throws IOException {
+        this.size = size;
+        chunks = new IntBuffer[chunkCount(size)];
+        long offset = position;
+        for (int i = 0; i < chunks.length; i++) {
+            long bytes = (long) chunkCells(size, i) * CELL_BYTES;
+            chunks[i] = channel.map(FileChannel.MapMode.READ_WRITE, offset, bytes)
+                    .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            offset += bytes;
+        }
+    }
+
+    /**
+     * Cria grades em memória direta, para ColumnarSimulation.
+     * 
+     * @return Uma fábrica de grades fora do heap.
+     */
+    public static IntFunction<CellGrid> direct() {
+        return OffHeapCellGrid::new;
+    }
+
+    /**
+     * Cria grades mapeadas de regiões consecutivas de um arquivo, depois do
+     * cabeçalho, na ordem em que forem pedidas. Para ColumnarSimulation as
+     * regiões 0 e 1 guardam o campo atual e o próximo, alternadamente (o
+     * cabeçalho diz qual é o atual), e a região 2 a camada estática.
+     * 
+     * @param channel O arquivo, aberto para leitura e escrita.
+     * @return Uma fábrica de grades mapeadas.
+     * @throws IOException Se o cabeçalho não puder ser mapeado.
+     */
+    public static IntFunction<CellGrid> mapped(FileChannel channel) throws IOException {
+        IntBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        header.put(0, 0).put(1, 0);
+        long[] position = { HEADER_BYTES };
+        int[] regions = { 0 };
+        return size -> {
+            try {
+                OffHeapCellGrid grid = new OffHeapCellGrid(channel, position[0], size);
+                grid.header = header;
+                grid.region = regions[0]++;
+                position[0] += (long) size * CELL_BYTES;
+                return grid;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Erro ao mapear a grade", e);
+            }
+        };
+    }
+
+    @Override
+    public int get(int cell) {
+        return chunks[cell >>> CHUNK_SHIFT].get(cell & CHUNK_MASK);
+    }
+
+    @Override
+    public void set(int cell, int code) {
+        chunks[cell >>> CHUNK_SHIFT].put(cell & CHUNK_MASK, code);
+    }
+
+    @Override
+    public void fill(int code) {
+        int[] block = new int[FILL_BLOCK];
+        Arrays.fill(block, code);
+        for (IntBuffer chunk : chunks) {
+            int limit = chunk.limit();
+            for (int from = 0; from < limit; from += FILL_BLOCK) {
+                chunk.put(from, block, 0, Math.min(FILL_BLOCK, limit - from));
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Grava no cabeçalho do arquivo o passo e, em seguida, a região desta
+     * grade como a do campo atual.
+     */
+    @Override
+    public void markCurrent(int step) {
+        if (header != null) {
+            header.put(1, step);
+            header.put(0, region);
+        }
+    }
+
+    /**
+     * @return Quantos pedaços uma grade com o tamanho dado precisa.
+     */
+    private static int chunkCount(int size) {
+        return Math.max(1, (int) (((long) size + CHUNK_MASK) >>> CHUNK_SHIFT));
+    }
+
+    /**
+     * @return Quantas células o pedaço i de uma grade com o tamanho dado tem.
+     */
+    private static int chunkCells(int size, int i) {
+        return Math.min(1 << CHUNK_SHIFT, size - (i << CHUNK_SHIFT));
+    }
+}
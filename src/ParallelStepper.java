@@ -0,0 +1,221 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Executa um passo da simulação em várias threads, dividindo o campo em
+ * ladrilhos (tiles) quadrados processados em um ForkJoinPool.
+ * 
+ * Um ator só lê e escreve posições a no máximo uma célula de distância da
+ * sua localização. Por isso os ladrilhos são coloridos como um tabuleiro
+ * 2x2 e processados em quatro fases: em cada fase só rodam ladrilhos da
+ * mesma cor, que ficam separados por pelo menos um ladrilho inteiro e nunca
+ * disputam a mesma célula. As fases são separadas por barreiras (join).
+ * 
+ * Semântica: os atores agem na ordem (fase, ladrilho, posição na ordem de
+ * visita sorteada para o passo; veja ActorList), e os recém-nascidos são
+ * juntados na ordem dos ladrilhos. Essa ordem não depende do escalonamento
+ * das threads, então o resultado é o mesmo entre execuções sempre que as
+ * escolhas aleatórias dos atores também forem determinísticas. Ela difere
+ * da ordem do passo sequencial.
+ * 
+ * @author GRUPO 05
+ * @version 2025
+ */
+public class ParallelStepper {
+    /** Lado padrão de um ladrilho, em células. */
+    public static final int DEFAULT_TILE_SIZE = 32;
+    /** Menor lado que mantém ladrilhos da mesma cor sem vizinhos em comum. */
+    private static final int MIN_TILE_SIZE = 2;
+
+    /** O pool de threads que processa os ladrilhos. */
+    private final ForkJoinPool pool;
+    /** O lado de cada ladrilho, em células. */
+    private final int tileSize;
+    /** Quantidade de linhas e colunas de ladrilhos do campo atual. */
+    private int tileRows, tileCols;
+    /** Atores agrupados pelo ladrilho em que estão no início do passo. */
+    private List<Actor>[] buckets;
+    /** Recém-nascidos de cada ladrilho durante o passo. */
+    private List<Actor>[] births;
+    /** Índices dos ladrilhos de cada uma das quatro cores. */
+    private int[][] phaseTiles;
+    /**
+     * Tempo das amostras de act de cada espécie, por ladrilho, no passo
+     * atual (veja StepProfiler).
+     */
+    private long[][] sampleNanos;
+    /** O perfilador do passo atual, ou null. */
+    private StepProfiler profiler;
+
+    /**
+     * Cria um executor paralelo com o tamanho de ladrilho padrão.
+     * 
+     * @param threads O número de threads de trabalho.
+     */
+    public ParallelStepper(int threads) {
+        this(threads, DEFAULT_TILE_SIZE);
+    }
+
+    /**
+     * Cria um executor paralelo.
+     * 
+     * @param threads  O número de threads de trabalho.
+     * @param tileSize O lado de cada ladrilho, em células (mínimo 2).
+     */
+    public ParallelStepper(int threads, int tileSize) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("threads must be positive: " + threads);
+        }
+        pool = new ForkJoinPool(threads);
+        this.tileSize = Math.max(tileSize, MIN_TILE_SIZE);
+    }
+
+    /**
+     * Faz todos os atores vivos agirem uma vez, em paralelo.
+     * 
+     * @param actors       Os atores da simulação.
+     * @param field        O campo atual.
+     * @param updatedField O campo a ser construído para o próximo passo.
+     * @param newActors    Uma lista para receber os atores recém-nascidos.
+     */
+    public void step(ActorList actors, Field field, Field updatedField, List<Actor> newActors) {
+        step(actors, field, updatedField, newActors, null);
+    }
+
+    /**
+     * Faz todos os atores vivos agirem uma vez, em paralelo, cronometrando
+     * uma amostra dos atores para o perfilador. Em cada ladrilho é medido um
+     * de cada StepProfiler.ACT_SAMPLE atores, e os tempos de cada ladrilho
+     * são somados ao perfilador depois das fases, na thread que chama.
+     * 
+     * @param actors       Os atores da simulação.
+     * @param field        O campo atual.
+     * @param updatedField O campo a ser construído para o próximo passo.
+     * @param newActors    Uma lista para receber os atores recém-nascidos.
+     * @param profiler     O perfilador, ou null.
+     */
+    public void step(ActorList actors, Field field, Field updatedField, List<Actor> newActors,
+            StepProfiler profiler) {
+        this.profiler = profiler;
+        prepareTiles(field);
+        actors.forEachInVisitOrder(actor -> {
+            if (actor.isAlive()) {
+                Location location = actor.getLocation();
+                int tile = (location.getRow() / tileSize) * tileCols + location.getCol() / tileSize;
+                buckets[tile].add(actor);
+            }
+        });
+        for (int[] tiles : phaseTiles) {
+            if (tiles.length > 0) {
+                pool.invoke(new PhaseTask(tiles, 0, tiles.length, field, updatedField));
+            }
+        }
+        for (int tile = 0; tile < births.length; tile++) {
+            newActors.addAll(births[tile]);
+            births[tile].clear();
+            buckets[tile].clear();
+            if (profiler != null) {
+                long[] nanos = sampleNanos[tile];
+                for (Species species : Species.values()) {
+                    profiler.addActorSample(species, nanos[species.ordinal()]);
+                }
+                Arrays.fill(nanos, 0);
+            }
+        }
+        this.profiler = null;
+    }
+
+    /**
+     * Encerra as threads de trabalho.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Calcula a divisão em ladrilhos para o tamanho do campo, se ainda não
+     * tiver sido calculada.
+     * 
+     * @param field O campo a ser dividido.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private void prepareTiles(Field field) {
+        int rows = (field.getDepth() + tileSize - 1) / tileSize;
+        int cols = (field.getWidth() + tileSize - 1) / tileSize;
+        if (buckets != null && rows == tileRows && cols == tileCols) {
+            return;
+        }
+        tileRows = rows;
+        tileCols = cols;
+        buckets = new List[rows * cols];
+        births = new List[rows * cols];
+        sampleNanos = new long[rows * cols][Species.values().length];
+        for (int tile = 0; tile < buckets.length; tile++) {
+            buckets[tile] = new ArrayList<>();
+            births[tile] = new ArrayList<>();
+        }
+        List<List<Integer>> phases = new ArrayList<>();
+        for (int phase = 0; phase < 4; phase++) {
+            phases.add(new ArrayList<>());
+        }
+        for (int tr = 0; tr < rows; tr++) {
+            for (int tc = 0; tc < cols; tc++) {
+                phases.get((tr % 2) * 2 + tc % 2).add(tr * cols + tc);
+            }
+        }
+        phaseTiles = new int[4][];
+        for (int phase = 0; phase < 4; phase++) {
+            phaseTiles[phase] = phases.get(phase).stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    /**
+     * Processa um intervalo de ladrilhos de uma mesma fase, dividindo o
+     * trabalho até chegar a um ladrilho por tarefa.
+     */
+    private class PhaseTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] tiles;
+        private final int from, to;
+        private final Field field, updatedField;
+
+        PhaseTask(int[] tiles, int from, int to, Field field, Field updatedField) {
+            this.tiles = tiles;
+            this.from = from;
+            this.to = to;
+            this.field = field;
+            this.updatedField = updatedField;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new PhaseTask(tiles, from, middle, field, updatedField),
+                        new PhaseTask(tiles, middle, to, field, updatedField));
+                return;
+            }
+            int tile = tiles[from];
+            List<Actor> newborns = births[tile];
+            List<Actor> bucket = buckets[tile];
+            for (int i = 0; i < bucket.size(); i++) {
+                Actor actor = bucket.get(i);
+                // Pode ter sido morto por um vizinho numa fase anterior.
+                if (!actor.isAlive()) {
+                    continue;
+                }
+                if (profiler != null && (i & (StepProfiler.ACT_SAMPLE - 1)) == 0) {
+                    long start = System.nanoTime();
+                    actor.act(field, updatedField, newborns);
+                    sampleNanos[tile][actor.getSpecies().ordinal()] += System.nanoTime() - start;
+                } else {
+                    actor.act(field, updatedField, newborns);
+                }
+            }
+        }
+    }
+}
@@ -1,13 +1,149 @@
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import javax.management.JMException;
+
 /**
  * Classe principal para iniciar a aplicação de simulação.
+ * Use "--headless [passos] [threads] [semente] [métricas] [checkpoint] [replay] [perfil]"
+ * para rodar sem interface gráfica (métricas: arquivo .csv, binário colunar
+ * para outras extensões, ou "-" para nenhum; checkpoint: arquivo de onde a
+ * simulação continua, se existir, e onde ela é gravada ao final, ou "-";
+ * replay: arquivo onde gravar cada passo, ou "-"; perfil: a cada quantos
+ * segundos mostrar o tempo de cada fase do passo, veja StepProfiler), ou
+ * "--columnar [passos] [semente] [grade]" para rodar o mesmo cenário no
+ * motor orientado a dados (ColumnarSimulation). A grade pode ser "offheap"
+ * (memória direta) ou um arquivo onde ela será mapeada. Use
+ * "--replay arquivo [passos/s]" para rever uma execução gravada, ou
+ * "--sweep passos repetições threads semente saída.csv [PARÂMETRO=v1,v2...]..."
+ * para uma varredura de parâmetros (veja SweepRunner e SimulationParameter).
+ * No modo headless, "--monitor" em qualquer posição registra a simulação
+ * como um MBean (veja SimulationMonitor); com a interface gráfica ela é
+ * sempre registrada.
  * 
  * @author GRUPO 05
  * @version 2025
  */
 public class Principal {
-  public static void main(String[] args) {
+  public static void main(String[] args) throws IOException, JMException {
+    boolean monitor = Arrays.asList(args).contains("--monitor");
+    if (monitor) {
+      args = Arrays.stream(args).filter(arg -> !arg.equals("--monitor")).toArray(String[]::new);
+    }
+    if (args.length > 1 && args[0].equals("--replay")) {
+      double speed = args.length > 2 ? Double.parseDouble(args[2]) : 30;
+      new ReplayPlayer(Paths.get(args[1])).play(speed);
+      return;
+    }
+    if (args.length > 5 && args[0].equals("--sweep")) {
+      SweepRunner sweep = new SweepRunner(SimulationConfig.DEFAULT, 80, 120);
+      for (int i = 6; i < args.length; i++) {
+        String[] axis = args[i].split("=", 2);
+        double[] values = Arrays.stream(axis[1].split(",")).mapToDouble(Double::parseDouble).toArray();
+        sweep.addAxis(SimulationParameter.valueOf(axis[0]), values);
+      }
+      long start = System.nanoTime();
+      try (Writer out = Files.newBufferedWriter(Paths.get(args[5]))) {
+        sweep.run(Integer.parseInt(args[1]), Integer.parseInt(args[2]), Long.parseLong(args[4]),
+            Integer.parseInt(args[3]), out);
+      }
+      System.out.println("Execuções: " + sweep.getPointCount() * Integer.parseInt(args[2]) + " em "
+          + (System.nanoTime() - start) / 1_000_000 + " ms");
+      return;
+    }
+    if (args.length > 0 && args[0].equals("--columnar")) {
+      int steps = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+      long seed = args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime();
+      Simulator simulator = new Simulator(80, 120, true, seed);
+      FileChannel gridFile = null;
+      ColumnarSimulation simulation;
+      if (args.length > 3 && args[3].equals("offheap")) {
+        simulation = simulator.toColumnar(OffHeapCellGrid.direct());
+      } else if (args.length > 3) {
+        gridFile = FileChannel.open(Paths.get(args[3]), StandardOpenOption.CREATE,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+        simulation = simulator.toColumnar(OffHeapCellGrid.mapped(gridFile));
+      } else {
+        simulation = simulator.toColumnar();
+      }
+      long start = System.nanoTime();
+      for (int step = 0; step < steps; step++) {
+        simulation.simulateOneStep();
+      }
+      long elapsed = System.nanoTime() - start;
+      if (gridFile != null) {
+        gridFile.close();
+      }
+      System.out.println("Passos: " + simulation.getStep() + " em " + (elapsed / 1_000_000) + " ms (semente " + seed + ")");
+      System.out.println(simulation.getPopulationDetails());
+      return;
+    }
+    if (args.length > 0 && args[0].equals("--headless")) {
+      int steps = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+      int threads = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+      long seed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+      Simulator simulator = new Simulator(80, 120, true, seed);
+      simulator.setParallelism(threads);
+      if (monitor) {
+        simulator.startMonitor();
+      }
+      MetricsSink sink = null;
+      ReplayRecorder replay = null;
+      boolean checkpoint = args.length > 5 && !args[5].equals("-");
+      if (checkpoint && Files.exists(Paths.get(args[5]))) {
+        simulator.loadCheckpoint(Paths.get(args[5]));
+      }
+      StepProfiler profiler = null;
+      long elapsed;
+      // Os arquivos são fechados mesmo se a simulação falhar, para não perder o que está em buffer.
+      try {
+        if (args.length > 4 && !args[4].equals("-")) {
+          sink = args[4].endsWith(".csv") ? new CsvMetricsSink(Paths.get(args[4]))
+              : new BinaryMetricsSink(Paths.get(args[4]));
+          simulator.setMetricsSink(sink);
+        }
+        if (args.length > 6 && !args[6].equals("-")) {
+          replay = new ReplayRecorder(Paths.get(args[6]), 80, 120);
+          simulator.setReplayRecorder(replay);
+        }
+        if (args.length > 7) {
+          profiler = new StepProfiler(System.out::println, (long) (Double.parseDouble(args[7]) * 1000));
+          simulator.setProfiler(profiler);
+        }
+        long start = System.nanoTime();
+        simulator.simulate(steps);
+        elapsed = System.nanoTime() - start;
+      } finally {
+        try {
+          if (sink != null) {
+            sink.close();
+          }
+        } finally {
+          if (replay != null) {
+            replay.close();
+          }
+        }
+      }
+      if (checkpoint) {
+        simulator.saveCheckpoint(Paths.get(args[5]), true);
+      }
+      System.out.println("Passos: " + simulator.getStep() + " em " + (elapsed / 1_000_000) + " ms (semente " + seed + ")");
+      System.out.println(simulator.getPopulationDetails());
+      System.out.println("Parada: " + simulator.getStopReason()
+          + (simulator.getCyclePeriod() > 0 ? " (período " + simulator.getCyclePeriod() + ")" : ""));
+      if (profiler != null) {
+        System.out.println(profiler.getSummary());
+      }
+      return;
+    }
     Simulator simulator = new Simulator(80, 120);
+    simulator.startMonitor();
     // simulator.runLongSimulation();
-    simulator.simulate(200);
+    // Roda na thread da simulação; a thread principal fica livre.
+    simulator.getScheduler().start(200);
   }
 }
@@ -1,5 +1,4 @@
 import java.util.List;
-import java.util.Random;
 
 /**
  * Um modelo simples de um coelho.
@@ -9,34 +8,36 @@ import java.util.Random;
  * @version 2025
  */
 public class Rabbit extends Animal implements HuntersPreys {
-    // Características compartilhadas por todos os coelhos (campos estáticos).
-
-    /** A idade na qual um coelho pode começar a procriar. */
-    private static final int BREEDING_AGE = 5;
-    /** A idade até a qual um coelho pode viver. */
-    private static final int MAX_AGE = 50;
-    /** A probabilidade de um coelho procriar. */
-    private static final double BREEDING_PROBABILITY = 0.15;
-    /** O número máximo de nascimentos (tamanho da ninhada). */
-    private static final int MAX_LITTER_SIZE = 5;
-    /**
-     * Um gerador de números aleatórios compartilhado para controlar a reprodução.
-     */
-    private static final Random rand = new Random();
+    // As características da espécie (idade máxima, ninhada...) vêm do
+    // SimulationConfig da simulação.
 
     /**
      * Cria um novo coelho. Um coelho pode ser criado com idade
      * zero (um recém-nascido) ou com uma idade aleatória.
      * 
      * @param randomAge Se true, o coelho terá uma idade aleatória.
+     * @param rand      O fluxo aleatório próprio do animal.
+     * @param config    Os parâmetros da simulação.
      */
-    public Rabbit(boolean randomAge) {
-        super();
+    public Rabbit(boolean randomAge, RandomStream rand, SimulationConfig config) {
+        super(rand, config);
         if (randomAge) {
-            setAge(rand.nextInt(MAX_AGE));
+            setAge(getRandom().nextInt(getMaxAge()));
         }
     }
 
+    /**
+     * Recria um coelho salvo (veja Checkpoint).
+     * 
+     * @param rand   O fluxo aleatório salvo do animal.
+     * @param config Os parâmetros da simulação.
+     * @param age    A idade.
+     */
+    Rabbit(RandomStream rand, SimulationConfig config, int age) {
+        super(rand, config);
+        setAge(age);
+    }
+
     /**
      * Isso é o que o coelho faz na maior parte do tempo - ele corre
      * por aí. Às vezes ele procria ou morre de velhice.
@@ -51,13 +52,13 @@ public class Rabbit extends Animal implements HuntersPreys {
         if (isAlive()) {
             int births = breed();
             for (int b = 0; b < births; b++) {
-                Rabbit newRabbit = new Rabbit(false);
+                Rabbit newRabbit = new Rabbit(false, getRandom().split(), getConfig());
                 newRabbits.add(newRabbit);
-                Location loc = updatedField.randomAdjacentLocation(getLocation());
+                Location loc = updatedField.randomAdjacentLocation(getLocation(), getRandom());
                 newRabbit.setLocation(loc);
                 updatedField.place(newRabbit, loc);
             }
-            Location newLocation = updatedField.freeAdjacentLocation(getLocation());
+            Location newLocation = updatedField.freeAdjacentLocation(getLocation(), getRandom());
             // Transfere para o campo atualizado apenas se houver uma localização livre
             if (newLocation != null) {
                 setLocation(newLocation);
@@ -65,28 +66,33 @@ public class Rabbit extends Animal implements HuntersPreys {
             } else {
                 // não pode nem se mover nem ficar - superpopulação - todas as localizações
                 // ocupadas
-                setDead();
+                setDead(DeathCause.OVERCROWDING);
             }
         }
     }
 
+    @Override
+    public Species getSpecies() {
+        return Species.RABBIT;
+    }
+
     @Override
     public boolean canBreed() {
-        return getAge() >= BREEDING_AGE;
+        return getAge() >= getConfig().getInt(SimulationParameter.RABBIT_BREEDING_AGE);
     }
 
     @Override
     public int getMaxAge() {
-        return MAX_AGE;
+        return getConfig().getInt(SimulationParameter.RABBIT_MAX_AGE);
     }
 
     @Override
     public double getBreedingProbability() {
-        return BREEDING_PROBABILITY;
+        return getConfig().get(SimulationParameter.RABBIT_BREEDING_PROBABILITY);
     }
 
     @Override
     public int getMaxLitterSize() {
-        return MAX_LITTER_SIZE;
+        return getConfig().getInt(SimulationParameter.RABBIT_MAX_LITTER_SIZE);
     }
 }
\ No newline at end of file
@@ -0,0 +1,172 @@
+import java.util.List;
+
+/**
+ * Um gerador de números pseudoaleatórios com semente, que pode ser dividido
+ * em fluxos independentes (algoritmo SplitMix64, o mesmo de
+ * java.util.SplittableRandom).
+ * 
+ * Cada simulação tem um fluxo raiz criado a partir da sua semente, e cada
+ * ator recebe um fluxo próprio derivado do fluxo de quem o criou. Assim uma
+ * execução com a mesma semente é reproduzida exatamente, e threads
+ * diferentes nunca disputam o mesmo gerador.
+ * 
+ * @author GRUPO 05
+ * @version 2025
+ */
+public class RandomStream {
+    /** O incremento padrão (parte fracionária da razão áurea). */
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    /** O estado atual do gerador. */
+    private long seed;
+    /** O incremento aplicado ao estado a cada número gerado (sempre ímpar). */
+    private final long gamma;
+
+    /**
+     * Cria um fluxo a partir de uma semente.
+     * 
+     * @param seed A semente inicial.
+     */
+    public RandomStream(long seed) {
+        this(seed, GOLDEN_GAMMA);
+    }
+
+    /**
+     * Cria um fluxo com estado e incremento explícitos.
+     * 
+     * @param seed  O estado inicial.
+     * @param gamma O incremento (deve ser ímpar).
+     */
+    private RandomStream(long seed, long gamma) {
+        this.seed = seed;
+        this.gamma = gamma;
+    }
+
+    /**
+     * Recria um fluxo a partir de um estado salvo (veja getState e
+     * getGamma), por exemplo de um checkpoint.
+     * 
+     * @param state O estado salvo.
+     * @param gamma O incremento salvo.
+     * @return Um fluxo que continua exatamente de onde o salvo parou.
+     */
+    static RandomStream restore(long state, long gamma) {
+        return new RandomStream(state, gamma);
+    }
+
+    /**
+     * @return O estado atual do gerador.
+     */
+    long getState() {
+        return seed;
+    }
+
+    /**
+     * @return O incremento do gerador.
+     */
+    long getGamma() {
+        return gamma;
+    }
+
+    /**
+     * Deriva um novo fluxo, estatisticamente independente deste. Este fluxo
+     * avança duas posições.
+     * 
+     * @return O novo fluxo.
+     */
+    public RandomStream split() {
+        return new RandomStream(nextLong(), mixGamma(nextSeed()));
+    }
+
+    /**
+     * @return Um long pseudoaleatório.
+     */
+    public long nextLong() {
+        return mix64(nextSeed());
+    }
+
+    /**
+     * Retorna um int pseudoaleatório entre 0 (inclusive) e o limite
+     * (exclusive), sem viés.
+     * 
+     * @param bound O limite superior (deve ser positivo).
+     * @return Um int no intervalo [0, bound).
+     */
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive: " + bound);
+        }
+        int r = mix32(nextSeed());
+        int m = bound - 1;
+        if ((bound & m) == 0) {
+            // potência de dois
+            return r & m;
+        }
+        for (int u = r >>> 1; u + m - (r = u % bound) < 0; u = mix32(nextSeed()) >>> 1) {
+            // rejeita valores que introduziriam viés
+        }
+        return r;
+    }
+
+    /**
+     * @return Um double pseudoaleatório no intervalo [0, 1).
+     */
+    public double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * Retorna o double que nextDouble devolveria depois de index chamadas,
+     * sem avançar o fluxo. Permite sortear um valor por passo em qualquer
+     * ordem (veja Tree).
+     * 
+     * @param index A posição no fluxo (0 = o próximo valor).
+     * @return Um double pseudoaleatório no intervalo [0, 1).
+     */
+    public double doubleAt(long index) {
+        return (mix64(seed + (index + 1) * gamma) >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * Embaralha uma lista (Fisher-Yates) usando este fluxo.
+     * 
+     * @param list A lista a ser embaralhada.
+     */
+    public <T> void shuffle(List<T> list) {
+        for (int i = list.size() - 1; i > 0; i--) {
+            int j = nextInt(i + 1);
+            T temp = list.get(i);
+            list.set(i, list.get(j));
+            list.set(j, temp);
+        }
+    }
+
+    /**
+     * Avança o estado.
+     */
+    private long nextSeed() {
+        return seed += gamma;
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static int mix32(long z) {
+        z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+        return (int) (((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+    }
+
+    /**
+     * Gera um incremento ímpar com bits suficientemente misturados.
+     */
+    private static long mixGamma(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        z = (z ^ (z >>> 33)) | 1L;
+        int n = Long.bitCount(z ^ (z >>> 1));
+        return (n < 24) ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+    }
+}
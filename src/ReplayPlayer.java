@@ -0,0 +1,375 @@
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import javax.swing.SwingUtilities;
+
+/**
+ * Reproduz um registro gravado por ReplayRecorder, sem simular de novo:
+ * avança quadro a quadro aplicando as células alteradas, salta para
+ * qualquer passo a partir do keyframe anterior e desenha os quadros em uma
+ * SimulatorView, no ritmo escolhido.
+ *
+ * O arquivo é mapeado em memória e indexado uma vez, lendo só os
+ * cabeçalhos dos quadros; um último quadro incompleto (registro
+ * interrompido) é ignorado.
+ *
+ * @author GRUPO 05
+ * @version 2025
+ */
+public class ReplayPlayer {
+    /** Sem salto pendente. */
+    private static final int NO_SEEK = Integer.MIN_VALUE;
+    /** Quantos passos os botões de salto avançam ou voltam. */
+    private static final int SEEK_STEPS = 100;
+    /** Velocidades mínima e máxima de reprodução, em passos por segundo. */
+    private static final double MIN_SPEED = 1, MAX_SPEED = 4096;
+
+    /** O conteúdo do arquivo. */
+    private final ByteBuffer data;
+    /** A profundidade e largura do campo. */
+    private final int depth, width;
+    /** Quantos quadros completos o arquivo tem. */
+    private int frameCount;
+    /** Passo, estação, tipo, início e tamanho do conteúdo de cada quadro. */
+    private int[] steps, offsets, lengths;
+    private byte[] seasons, types;
+    /** O código de cada célula no quadro atual. */
+    private final byte[] cells;
+    /** O quadro atual (-1 antes do primeiro). */
+    private int current = -1;
+    /** O passo do quadro atual, lido também pelos botões na EDT. */
+    private volatile int currentStep;
+
+    /** Salto pedido pela interface (NO_SEEK se não houver). */
+    private final AtomicInteger seekRequest = new AtomicInteger(NO_SEEK);
+    /** Passos individuais pedidos pela interface enquanto pausado. */
+    private final AtomicInteger stepRequests = new AtomicInteger();
+    /** Se a reprodução está pausada. */
+    private volatile boolean paused;
+    /** Velocidade de reprodução, em passos por segundo. */
+    private volatile double speed;
+
+    /**
+     * Abre e indexa um registro de replay.
+     *
+     * @param path O caminho do arquivo.
+     * @throws IOException Se o arquivo não puder ser lido ou não for um
+     *                     registro de replay.
+     */
+    public ReplayPlayer(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Replay grande demais para ser mapeado: " + path);
+            }
+            data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        try {
+            byte[] magic = new byte[ReplayRecorder.MAGIC.length];
+            data.get(magic);
+            if (!Arrays.equals(magic, ReplayRecorder.MAGIC)
+                    || ReplayRecorder.getVarint(data) != ReplayRecorder.VERSION) {
+                throw new IOException("Replay inválido ou de outra versão: " + path);
+            }
+            depth = ReplayRecorder.getVarint(data);
+            width = ReplayRecorder.getVarint(data);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Replay truncado: " + path, e);
+        }
+        cells = new byte[Math.multiplyExact(depth, width)];
+        index();
+        if (frameCount == 0 || types[0] != ReplayRecorder.KEYFRAME) {
+            throw new IOException("Replay sem quadros: " + path);
+        }
+    }
+
+    /**
+     * Lê os cabeçalhos de todos os quadros completos.
+     */
+    private void index() {
+        int capacity = 1024;
+        steps = new int[capacity];
+        offsets = new int[capacity];
+        lengths = new int[capacity];
+        seasons = new byte[capacity];
+        types = new byte[capacity];
+        ByteBuffer in = data.duplicate();
+        try {
+            while (in.hasRemaining()) {
+                byte type = in.get();
+                int step = ReplayRecorder.getVarint(in);
+                byte season = in.get();
+                int length = ReplayRecorder.getVarint(in);
+                if ((type != ReplayRecorder.KEYFRAME && type != ReplayRecorder.DELTA)
+                        || length > in.remaining()) {
+                    break;
+                }
+                if (frameCount == steps.length) {
+                    capacity *= 2;
+                    steps = Arrays.copyOf(steps, capacity);
+                    offsets = Arrays.copyOf(offsets, capacity);
+                    lengths = Arrays.copyOf(lengths, capacity);
+                    seasons = Arrays.copyOf(seasons, capacity);
+                    types = Arrays.copyOf(types, capacity);
+                }
+                steps[frameCount] = step;
+                offsets[frameCount] = in.position();
+                lengths[frameCount] = length;
+                seasons[frameCount] = season;
+                types[frameCount] = type;
+                frameCount++;
+                in.position(in.position() + length);
+            }
+        } catch (BufferUnderflowException e) {
+            // Cabeçalho incompleto no fim do arquivo: o registro foi interrompido.
+        }
+    }
+
+    /**
+     * @return A profundidade do campo.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return A largura do campo.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return Quantos quadros o registro tem.
+     */
+    public int getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * @return O passo do primeiro quadro.
+     */
+    public int getFirstStep() {
+        return steps[0];
+    }
+
+    /**
+     * @return O passo do último quadro.
+     */
+    public int getLastStep() {
+        return steps[frameCount - 1];
+    }
+
+    /**
+     * @return O passo do quadro atual.
+     */
+    public int getStep() {
+        return currentStep;
+    }
+
+    /**
+     * @return A estação do quadro atual (0 = primavera, ..., 3 = inverno).
+     */
+    public int getSeasonIndex() {
+        return seasons[Math.max(current, 0)];
+    }
+
+    /**
+     * @return O código de cada célula no quadro atual (Species.ordinal() +
+     *         1, ou FieldSnapshot.EMPTY), indexado por linha * largura +
+     *         coluna. Não deve ser modificado.
+     */
+    public byte[] getCells() {
+        return cells;
+    }
+
+    /**
+     * Avança para o próximo quadro.
+     *
+     * @return false se o quadro atual já era o último.
+     */
+    public boolean next() {
+        if (current + 1 >= frameCount) {
+            return false;
+        }
+        apply(current + 1);
+        return true;
+    }
+
+    /**
+     * Vai para o último quadro com passo menor ou igual ao dado (ou para o
+     * primeiro, se o passo for anterior a ele). Decodifica o keyframe mais
+     * próximo antes do destino e aplica as alterações a partir dele; um
+     * salto curto para a frente só aplica as alterações.
+     *
+     * @param step O passo de destino.
+     */
+    public void seek(int step) {
+        int target = Arrays.binarySearch(steps, 0, frameCount, step);
+        if (target < 0) {
+            target = Math.max(-target - 2, 0);
+        }
+        int keyframe = target;
+        while (types[keyframe] != ReplayRecorder.KEYFRAME) {
+            keyframe--;
+        }
+        int frame = current >= keyframe && current <= target ? current : keyframe - 1;
+        while (frame < target) {
+            apply(++frame);
+        }
+    }
+
+    /**
+     * Aplica um quadro sobre as células atuais.
+     */
+    private void apply(int frame) {
+        ByteBuffer in = data.duplicate();
+        in.position(offsets[frame]);
+        if (types[frame] == ReplayRecorder.KEYFRAME) {
+            int cell = 0;
+            while (cell < cells.length) {
+                int run = ReplayRecorder.getVarint(in);
+                byte code = in.get();
+                Arrays.fill(cells, cell, cell + run, code);
+                cell += run;
+            }
+        } else {
+            int changed = ReplayRecorder.getVarint(in);
+            int cell = 0;
+            for (int i = 0; i < changed; i++) {
+                cell += ReplayRecorder.getVarint(in);
+                cells[cell] = in.get();
+            }
+        }
+        current = frame;
+        currentStep = steps[frame];
+    }
+
+    /**
+     * @return Uma descrição da população do quadro atual, contada nas
+     *         células.
+     */
+    public String getPopulationDetails() {
+        Species[] species = Species.values();
+        FieldStats stats = new FieldStats();
+        for (byte code : cells) {
+            if (code != FieldSnapshot.EMPTY) {
+                stats.increment(species[code - 1]);
+            }
+        }
+        return stats.getPopulationDetails();
+    }
+
+    /**
+     * Copia o quadro atual para um FrameBuffer e o publica.
+     *
+     * @param frames O destino.
+     * @param force  Se true, publica mesmo antes do intervalo entre quadros.
+     */
+    public void publish(FrameBuffer frames, boolean force) {
+        if (force || frames.isFrameDue()) {
+            FieldSnapshot frame = frames.getBackBuffer();
+            System.arraycopy(cells, 0, frame.getCells(), 0, cells.length);
+            frame.setDetails(currentStep, SeasonClock.NAMES[getSeasonIndex()], getPopulationDetails());
+            frames.publish();
+        }
+    }
+
+    /**
+     * Abre uma janela e reproduz o registro do início ao fim, na velocidade
+     * dada. Os botões pausam, avançam um passo, saltam SEEK_STEPS passos
+     * para trás ou para a frente e dobram ou dividem a velocidade. Não
+     * retorna: a reprodução continua até a janela ser fechada.
+     *
+     * @param stepsPerSecond Quantos passos mostrar por segundo.
+     */
+    public void play(double stepsPerSecond) {
+        speed = Math.max(MIN_SPEED, Math.min(MAX_SPEED, stepsPerSecond));
+        FrameBuffer frames = new FrameBuffer(depth, width, SimulatorView.TARGET_FPS);
+        SimulatorView[] view = new SimulatorView[1];
+        try {
+            SwingUtilities.invokeAndWait(() -> view[0] = buildView(frames));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException("Erro ao criar a visualização", e.getCause());
+        }
+
+        seek(getFirstStep());
+        publish(frames, true);
+        long deadline = System.nanoTime();
+        while (true) {
+            int target = seekRequest.getAndSet(NO_SEEK);
+            if (target != NO_SEEK) {
+                seek(target);
+                publish(frames, true);
+                deadline = System.nanoTime();
+                continue;
+            }
+            if (paused) {
+                if (stepRequests.getAndUpdate(n -> Math.max(n - 1, 0)) > 0 && next()) {
+                    publish(frames, true);
+                } else {
+                    LockSupport.parkNanos(TimeUnit.SECONDS.toNanos(1) / SimulatorView.TARGET_FPS);
+                }
+                deadline = System.nanoTime();
+                continue;
+            }
+            if (!next()) {
+                // Fim do registro: mostra o último quadro e espera na pausa.
+                publish(frames, true);
+                paused = true;
+                continue;
+            }
+            publish(frames, false);
+            deadline += (long) (TimeUnit.SECONDS.toNanos(1) / speed);
+            long wait = deadline - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            } else if (wait < -TimeUnit.SECONDS.toNanos(1)) {
+                // Muito atrasado (quadros pesados): não tenta recuperar o atraso.
+                deadline = System.nanoTime();
+            }
+        }
+    }
+
+    /**
+     * Cria a janela do replay e seus controles. Executado na EDT.
+     */
+    private SimulatorView buildView(FrameBuffer frames) {
+        SimulatorView view = new SimulatorView(depth, width, frames);
+        Simulator.setDefaultColors(view);
+        updateTitle(view);
+        view.setStepListener(e -> {
+            paused = true;
+            stepRequests.incrementAndGet();
+        });
+        view.addControl("-" + SEEK_STEPS, e -> seekRequest.set(currentStep - SEEK_STEPS));
+        view.addControl("Pausar/Continuar", e -> paused = !paused);
+        view.addControl("+" + SEEK_STEPS, e -> seekRequest.set(currentStep + SEEK_STEPS));
+        view.addControl("Mais lento", e -> {
+            speed = Math.max(MIN_SPEED, speed / 2);
+            updateTitle(view);
+        });
+        view.addControl("Mais rápido", e -> {
+            speed = Math.min(MAX_SPEED, speed * 2);
+            updateTitle(view);
+        });
+        return view;
+    }
+
+    /**
+     * Mostra a velocidade atual no título da janela.
+     */
+    private void updateTitle(SimulatorView view) {
+        view.setTitle("Replay - GRUPO 5 (" + (int) speed + " passos/s)");
+    }
+}
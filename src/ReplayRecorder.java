@@ -0,0 +1,256 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Grava um registro de replay: a espécie de cada célula a cada passo, para
+ * rever uma execução (veja ReplayPlayer) sem simulá-la de novo.
+ * 
+ * Em vez de quadros completos, a maioria dos passos guarda só as células
+ * que mudaram; a cada keyframeInterval passos é gravado um quadro completo
+ * (keyframe), a partir do qual o replay pode saltar para qualquer passo.
+ * 
+ * Formato (inteiros sem sinal em varint, 7 bits por byte, menos
+ * significativos primeiro):
+ * cabeçalho: "PPOOREPL" (8 bytes), versão, profundidade, largura;
+ * cada quadro: tipo (1 byte, 'K' ou 'D'), passo, estação (1 byte), tamanho
+ * do conteúdo em bytes e o conteúdo.
+ * Keyframe: pares (comprimento da sequência, código) cobrindo todas as
+ * células em ordem (run-length). Delta: quantidade de células alteradas e,
+ * para cada uma, a distância desde a anterior alterada e o novo código.
+ * Os códigos são os de FieldSnapshot (Species.ordinal() + 1, ou 0).
+ * 
+ * O arquivo não tem índice no final: o ReplayPlayer o monta lendo os
+ * cabeçalhos dos quadros, e um registro interrompido continua legível.
+ * 
+ * @author GRUPO 05
+ * @version 2025
+ */
+public class ReplayRecorder implements AutoCloseable {
+    /** Identificação do formato no início do arquivo. */
+    static final byte[] MAGIC = { 'P', 'P', 'O', 'O', 'R', 'E', 'P', 'L' };
+    /** Versão do formato. */
+    static final int VERSION = 1;
+    /** Tipo de quadro completo. */
+    static final byte KEYFRAME = 'K';
+    /** Tipo de quadro com as células alteradas. */
+    static final byte DELTA = 'D';
+    /** Intervalo padrão entre keyframes, em quadros. */
+    public static final int DEFAULT_KEYFRAME_INTERVAL = 100;
+    /** Tamanho do buffer de escrita. */
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    /** O arquivo de saída. */
+    private final FileChannel channel;
+    /** Buffer de escrita no arquivo. */
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    /** O conteúdo do quadro sendo codificado (cresce quando preciso). */
+    private ByteBuffer payload = ByteBuffer.allocate(BUFFER_BYTES);
+    /** A profundidade e largura do campo. */
+    private final int depth, width;
+    /** Quadros entre dois keyframes. */
+    private final int keyframeInterval;
+    /** Códigos das células no quadro atual e no anterior. */
+    private byte[] cells, previous;
+    /** Quantos quadros foram gravados desde o último keyframe (-1: nenhum). */
+    private int sinceKeyframe = -1;
+
+    /**
+     * Cria (ou sobrescreve) o registro, com o intervalo padrão entre
+     * keyframes.
+     * 
+     * @param path  O caminho do arquivo.
+     * @param depth A profundidade do campo.
+     * @param width A largura do campo.
+     * @throws IOException Se o arquivo não puder ser criado.
+     */
+    public ReplayRecorder(Path path, int depth, int width) throws IOException {
+        this(path, depth, width, DEFAULT_KEYFRAME_INTERVAL);
+    }
+
+    /**
+     * Cria (ou sobrescreve) o registro e escreve o cabeçalho.
+     * 
+     * @param path             O caminho do arquivo.
+     * @param depth            A profundidade do campo.
+     * @param width            A largura do campo.
+     * @param keyframeInterval Quadros entre dois keyframes (mais: arquivo
+     *                         menor; menos: saltos mais rápidos).
+     * @throws IOException Se o arquivo não puder ser criado.
+     */
+    public ReplayRecorder(Path path, int depth, int width, int keyframeInterval) throws IOException {
+        if (keyframeInterval <= 0) {
+            throw new IllegalArgumentException("keyframe interval must be positive: " + keyframeInterval);
+        }
+        this.depth = depth;
+        this.width = width;
+        this.keyframeInterval = keyframeInterval;
+        cells = new byte[Math.multiplyExact(depth, width)];
+        previous = new byte[cells.length];
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        buffer.put(MAGIC);
+        putVarint(buffer, VERSION);
+        putVarint(buffer, depth);
+        putVarint(buffer, width);
+    }
+
+    /**
+     * Grava um quadro com o estado atual do campo.
+     * 
+     * @param step        O passo.
+     * @param seasonIndex A estação (0 = primavera, ..., 3 = inverno).
+     * @param field       O campo.
+     * @throws IOException Se a escrita falhar.
+     */
+    public void record(int step, int seasonIndex, Field field) throws IOException {
+        if (field.getDepth() != depth || field.getWidth() != width) {
+            throw new IllegalArgumentException("field size differs from the replay header");
+        }
+        FieldSnapshot.captureCells(field, cells);
+        payload.clear();
+        byte type;
+        if (sinceKeyframe < 0 || sinceKeyframe + 1 >= keyframeInterval) {
+            type = KEYFRAME;
+            encodeKeyframe();
+            sinceKeyframe = 0;
+        } else {
+            type = DELTA;
+            encodeDelta();
+            sinceKeyframe++;
+        }
+        payload.flip();
+
+        ensureSpace(1 + 5 + 1 + 5);
+        buffer.put(type);
+        putVarint(buffer, step);
+        buffer.put((byte) seasonIndex);
+        putVarint(buffer, payload.remaining());
+        while (payload.hasRemaining()) {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            int count = Math.min(buffer.remaining(), payload.remaining());
+            ByteBuffer part = payload.slice();
+            part.limit(count);
+            buffer.put(part);
+            payload.position(payload.position() + count);
+        }
+
+        byte[] temp = previous;
+        previous = cells;
+        cells = temp;
+    }
+
+    /**
+     * Codifica todas as células em sequências de mesmo código.
+     */
+    private void encodeKeyframe() {
+        int i = 0;
+        while (i < cells.length) {
+            byte code = cells[i];
+            int run = 1;
+            while (i + run < cells.length && cells[i + run] == code) {
+                run++;
+            }
+            ensurePayload(6);
+            putVarint(payload, run);
+            payload.put(code);
+            i += run;
+        }
+    }
+
+    /**
+     * Codifica as células que mudaram desde o quadro anterior.
+     */
+    private void encodeDelta() {
+        int changed = 0;
+        for (int i = 0; i < cells.length; i++) {
+            if (cells[i] != previous[i]) {
+                changed++;
+            }
+        }
+        ensurePayload(5);
+        putVarint(payload, changed);
+        int last = 0;
+        for (int i = 0; i < cells.length; i++) {
+            if (cells[i] != previous[i]) {
+                ensurePayload(6);
+                putVarint(payload, i - last);
+                payload.put(cells[i]);
+                last = i;
+            }
+        }
+    }
+
+    /**
+     * Garante espaço no conteúdo do quadro, aumentando-o se preciso.
+     */
+    private void ensurePayload(int bytes) {
+        if (payload.remaining() < bytes) {
+            ByteBuffer larger = ByteBuffer.allocate(payload.capacity() * 2);
+            payload.flip();
+            payload = larger.put(payload);
+        }
+    }
+
+    /**
+     * Garante espaço no buffer de escrita, gravando-o se preciso.
+     */
+    private void ensureSpace(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    /**
+     * Grava o conteúdo do buffer no arquivo.
+     */
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Grava os quadros pendentes e fecha o arquivo.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Escreve um inteiro sem sinal em varint.
+     */
+    static void putVarint(ByteBuffer out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    /**
+     * Lê um inteiro sem sinal em varint.
+     */
+    static int getVarint(ByteBuffer in) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.get();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+}
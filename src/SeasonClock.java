@@ -0,0 +1,82 @@
+/**
+ * O relógio de estações de uma simulação. Cada Simulator tem o seu, e as
+ * árvores o consultam para saber a estação atual; assim simulações
+ * diferentes na mesma JVM não compartilham a estação.
+ *
+ * O simulador o atualiza entre os passos; durante um passo ele só é lido.
+ *
+ * @author GRUPO 05
+ * @version 2025
+ */
+public class SeasonClock {
+    /** Os nomes das estações, na ordem dos índices. */
+    public static final String[] NAMES = { "spring", "summer", "autumn", "winter" };
+    /** Estação de índice 0. */
+    public static final int SPRING = 0;
+    /** Estação de índice 1. */
+    public static final int SUMMER = 1;
+
+    /** Duração de cada estação em passos. */
+    private final int seasonLength;
+    /** O passo atual. */
+    private int step;
+    /** A estação atual (0 = primavera, ..., 3 = inverno). */
+    private int seasonIndex;
+
+    /**
+     * Cria um relógio no passo 0 (primavera).
+     *
+     * @param seasonLength Duração de cada estação em passos.
+     */
+    public SeasonClock(int seasonLength) {
+        this.seasonLength = seasonLength;
+    }
+
+    /**
+     * Avança (ou volta) o relógio para um passo.
+     *
+     * @param step O passo.
+     */
+    public void setStep(int step) {
+        this.step = step;
+        seasonIndex = seasonOf(step);
+    }
+
+    /**
+     * Retorna a estação de um passo qualquer.
+     *
+     * @param step O passo.
+     * @return A estação (0 = primavera, ..., 3 = inverno).
+     */
+    public int seasonOf(int step) {
+        return (step / seasonLength) % 4;
+    }
+
+    /**
+     * @return O passo atual.
+     */
+    public int getStep() {
+        return step;
+    }
+
+    /**
+     * @return A estação atual (0 = primavera, ..., 3 = inverno).
+     */
+    public int getSeasonIndex() {
+        return seasonIndex;
+    }
+
+    /**
+     * @return O nome da estação atual.
+     */
+    public String getSeasonName() {
+        return NAMES[seasonIndex];
+    }
+
+    /**
+     * @return Duração de cada estação em passos.
+     */
+    public int getSeasonLength() {
+        return seasonLength;
+    }
+}
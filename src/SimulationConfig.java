@@ -0,0 +1,118 @@
+import java.util.Arrays;
+
+/**
+ * Os parâmetros de uma simulação: probabilidades de criação, duração das
+ * estações e as características de cada espécie. Cada Simulator (e cada
+ * ator que ele cria) usa o seu próprio SimulationConfig, então simulações
+ * com parâmetros diferentes podem rodar ao mesmo tempo na mesma JVM (veja
+ * SweepRunner).
+ *
+ * Um SimulationConfig é imutável: with devolve uma cópia com um parâmetro
+ * alterado. Os valores padrão são os do modelo original.
+ *
+ * @author GRUPO 05
+ * @version 2025
+ */
+public final class SimulationConfig {
+    /** Os parâmetros, na ordem dos índices de values. */
+    private static final SimulationParameter[] PARAMETERS = SimulationParameter.values();
+    /** A configuração com todos os valores padrão. */
+    public static final SimulationConfig DEFAULT = new SimulationConfig();
+
+    /** O valor de cada parâmetro, indexado por SimulationParameter.ordinal(). */
+    private final double[] values;
+
+    /**
+     * Cria uma configuração com os valores padrão.
+     */
+    public SimulationConfig() {
+        values = new double[PARAMETERS.length];
+        for (SimulationParameter parameter : PARAMETERS) {
+            values[parameter.ordinal()] = parameter.getDefaultValue();
+        }
+    }
+
+    private SimulationConfig(double[] values) {
+        this.values = values;
+    }
+
+    /**
+     * Retorna uma cópia desta configuração com um parâmetro alterado.
+     *
+     * @param parameter O parâmetro.
+     * @param value     O novo valor.
+     * @return A nova configuração.
+     * @throws IllegalArgumentException Se o valor estiver fora dos limites
+     *                                  do parâmetro, ou não for inteiro para
+     *                                  um parâmetro inteiro.
+     */
+    public SimulationConfig with(SimulationParameter parameter, double value) {
+        if (!(value >= parameter.getMin() && value <= parameter.getMax())
+                || (parameter.isInteger() && value != Math.rint(value))) {
+            throw new IllegalArgumentException("invalid value for " + parameter + ": " + value);
+        }
+        double[] copy = values.clone();
+        copy[parameter.ordinal()] = value;
+        return new SimulationConfig(copy);
+    }
+
+    /**
+     * Retorna o valor de um parâmetro.
+     *
+     * @param parameter O parâmetro.
+     * @return O valor.
+     */
+    public double get(SimulationParameter parameter) {
+        return values[parameter.ordinal()];
+    }
+
+    /**
+     * Retorna o valor de um parâmetro inteiro.
+     *
+     * @param parameter O parâmetro.
+     * @return O valor.
+     */
+    public int getInt(SimulationParameter parameter) {
+        return (int) values[parameter.ordinal()];
+    }
+
+    /**
+     * @return Os parâmetros diferentes do padrão, no formato
+     *         "NOME=valor,NOME=valor".
+     */
+    @Override
+    public String toString() {
+        StringBuilder buffer = new StringBuilder();
+        for (SimulationParameter parameter : PARAMETERS) {
+            double value = values[parameter.ordinal()];
+            if (value != parameter.getDefaultValue()) {
+                if (buffer.length() > 0) {
+                    buffer.append(',');
+                }
+                buffer.append(parameter).append('=').append(format(parameter, value));
+            }
+        }
+        return buffer.toString();
+    }
+
+    /**
+     * Formata um valor de parâmetro (sem ".0" para parâmetros inteiros).
+     *
+     * @param parameter O parâmetro.
+     * @param value     O valor.
+     * @return O valor como texto.
+     */
+    static String format(SimulationParameter parameter, double value) {
+        return parameter.isInteger() ? Long.toString((long) value) : Double.toString(value);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof SimulationConfig && Arrays.equals(values, ((SimulationConfig) other).values);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(values);
+    }
+}
@@ -0,0 +1,208 @@
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Expõe uma simulação no servidor de MBeans da plataforma, com o nome
+ * "ppoo:type=Simulation,id=N" (veja Simulator.startMonitor).
+ *
+ * O simulador chama recordStep ao fim de cada passo, na sua própria
+ * thread; os atributos são lidos pelas threads do JMX a partir dos valores
+ * guardados ali, sem tocar no campo. As operações de controle (pausa, taxa
+ * alvo, checkpoint) são repassadas ao simulador, que as atende entre dois
+ * passos.
+ *
+ * @author GRUPO 05
+ * @version 2025
+ */
+public class SimulationMonitor implements SimulationMonitorMXBean {
+    /** As espécies, na ordem dos índices. */
+    private static final Species[] SPECIES = Species.values();
+    /** Numera os monitores registrados nesta JVM. */
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+    /** Intervalo mínimo entre duas medições da taxa de passos. */
+    private static final long RATE_INTERVAL_NANOS = 1_000_000_000L;
+
+    /** A simulação monitorada. */
+    private final Simulator simulator;
+    /** O nome com que o monitor foi registrado. */
+    private final ObjectName name;
+
+    /** O último passo registrado. */
+    private volatile int step;
+    /**
+     * A população de cada espécie ao fim do último passo. Também protege
+     * (synchronized) os contadores abaixo.
+     */
+    private final int[] populations = new int[SPECIES.length];
+    /** O tamanho da lista de atores e os nascimentos e mortes do passo. */
+    private int actorCount, births, deaths;
+    /** A estação ao fim do último passo. */
+    private int seasonIndex;
+    /** A última taxa de passos medida. */
+    private volatile double stepsPerSecond;
+    /** Início da medição da taxa (tempo e passo). */
+    private long rateStart;
+    private int rateStartStep;
+
+    /**
+     * Cria o monitor de uma simulação e o registra no servidor de MBeans da
+     * plataforma.
+     *
+     * @param simulator A simulação.
+     * @throws JMException Se o registro falhar.
+     */
+    SimulationMonitor(Simulator simulator) throws JMException {
+        this.simulator = simulator;
+        name = new ObjectName("ppoo:type=Simulation,id=" + NEXT_ID.getAndIncrement());
+        rateStart = System.nanoTime();
+        rateStartStep = simulator.getStep();
+        step = simulator.getStep();
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+    }
+
+    /**
+     * Remove o monitor do servidor de MBeans.
+     */
+    void unregister() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Erro ao remover o monitor " + name, e);
+        }
+    }
+
+    /**
+     * @return O nome com que o monitor foi registrado.
+     */
+    public ObjectName getName() {
+        return name;
+    }
+
+    /**
+     * Guarda o estado ao fim de um passo. Chamado pelo simulador.
+     *
+     * @param step        O passo concluído.
+     * @param stats       As contagens da população.
+     * @param actorCount  O tamanho da lista de atores.
+     * @param births      Os nascimentos do passo.
+     * @param deaths      As mortes do passo.
+     * @param seasonIndex A estação atual.
+     */
+    void recordStep(int step, FieldStats stats, int actorCount, int births, int deaths, int seasonIndex) {
+        synchronized (populations) {
+            for (Species species : SPECIES) {
+                populations[species.ordinal()] = stats.getCount(species);
+            }
+            this.actorCount = actorCount;
+            this.births = births;
+            this.deaths = deaths;
+            this.seasonIndex = seasonIndex;
+        }
+        long now = System.nanoTime();
+        if (now - rateStart >= RATE_INTERVAL_NANOS) {
+            stepsPerSecond = (step - rateStartStep) * 1e9 / (now - rateStart);
+            rateStart = now;
+            rateStartStep = step;
+        }
+        this.step = step;
+    }
+
+    @Override
+    public int getStep() {
+        return step;
+    }
+
+    @Override
+    public double getStepsPerSecond() {
+        return stepsPerSecond;
+    }
+
+    @Override
+    public Map<String, Integer> getPopulations() {
+        Map<String, Integer> result = new LinkedHashMap<>();
+        synchronized (populations) {
+            for (Species species : SPECIES) {
+                result.put(species.getDisplayName(), populations[species.ordinal()]);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public int getActorCount() {
+        synchronized (populations) {
+            return actorCount;
+        }
+    }
+
+    @Override
+    public int getBirthsLastStep() {
+        synchronized (populations) {
+            return births;
+        }
+    }
+
+    @Override
+    public int getDeathsLastStep() {
+        synchronized (populations) {
+            return deaths;
+        }
+    }
+
+    @Override
+    public String getSeason() {
+        synchronized (populations) {
+            return SeasonClock.NAMES[seasonIndex];
+        }
+    }
+
+    @Override
+    public long getHeapBytesPerActor() {
+        long used = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        return used / Math.max(getActorCount(), 1);
+    }
+
+    @Override
+    public boolean isPaused() {
+        return simulator.getScheduler().isPaused();
+    }
+
+    @Override
+    public double getTargetStepRate() {
+        return simulator.getScheduler().getTargetStepRate();
+    }
+
+    @Override
+    public void setTargetStepRate(double stepsPerSecond) {
+        if (stepsPerSecond == 0) {
+            simulator.getScheduler().setUnthrottled();
+        } else {
+            simulator.getScheduler().setFixedRate(stepsPerSecond);
+        }
+    }
+
+    @Override
+    public void pause() {
+        simulator.getScheduler().pause();
+    }
+
+    @Override
+    public void resume() {
+        simulator.getScheduler().resume();
+    }
+
+    @Override
+    public void checkpoint(String file) throws IOException {
+        simulator.getScheduler().requestCheckpoint(Paths.get(file));
+    }
+}
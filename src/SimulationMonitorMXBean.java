@@ -0,0 +1,88 @@
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * A interface de monitoramento de uma simulação em andamento, exposta por
+ * JMX (veja SimulationMonitor). Pode ser vista e controlada pelo JConsole
+ * ou por qualquer cliente JMX, sem reiniciar a simulação.
+ *
+ * @author GRUPO 05
+ * @version 2025
+ */
+public interface SimulationMonitorMXBean {
+    /**
+     * @return O último passo concluído.
+     */
+    int getStep();
+
+    /**
+     * @return Passos por segundo, medidos no último segundo (aproximado).
+     */
+    double getStepsPerSecond();
+
+    /**
+     * @return A população de cada espécie, pelo nome exibido da espécie.
+     */
+    Map<String, Integer> getPopulations();
+
+    /**
+     * @return Quantos atores estão na lista de atores.
+     */
+    int getActorCount();
+
+    /**
+     * @return Quantos atores nasceram no último passo.
+     */
+    int getBirthsLastStep();
+
+    /**
+     * @return Quantos atores morreram no último passo.
+     */
+    int getDeathsLastStep();
+
+    /**
+     * @return O nome da estação atual.
+     */
+    String getSeason();
+
+    /**
+     * @return Bytes de heap em uso divididos pelo número de atores (uma
+     *         estimativa grosseira do custo de cada ator).
+     */
+    long getHeapBytesPerActor();
+
+    /**
+     * @return Se a simulação está pausada.
+     */
+    boolean isPaused();
+
+    /**
+     * @return A taxa alvo em passos por segundo (0 = sem limite).
+     */
+    double getTargetStepRate();
+
+    /**
+     * Muda a taxa alvo de passos.
+     *
+     * @param stepsPerSecond Passos por segundo (0 = sem limite).
+     */
+    void setTargetStepRate(double stepsPerSecond);
+
+    /**
+     * Pausa a simulação antes do próximo passo.
+     */
+    void pause();
+
+    /**
+     * Continua uma simulação pausada.
+     */
+    void resume();
+
+    /**
+     * Grava um checkpoint comprimido entre dois passos e espera terminar.
+     *
+     * @param file O caminho do arquivo.
+     * @throws IOException Se a gravação falhar.
+     */
+    void checkpoint(String file) throws IOException;
+}
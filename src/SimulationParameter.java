@@ -0,0 +1,131 @@
+/**
+ * Os parâmetros configuráveis de uma simulação (veja SimulationConfig), com
+ * valor padrão e limites. Parâmetros inteiros só aceitam valores inteiros.
+ * Os padrões são os valores do modelo original.
+ * 
+ * @author GRUPO 05
+ * @version 2025
+ */
+public enum SimulationParameter {
+    /** A probabilidade de uma raposa ser criada em qualquer posição do campo. */
+    FOX_CREATION_PROBABILITY(0.02, 0, 1, false),
+    /** A probabilidade de um coelho ser criado em qualquer posição do campo. */
+    RABBIT_CREATION_PROBABILITY(0.08, 0, 1, false),
+    /** A probabilidade de um caçador ser criado (Baixa densidade). */
+    HUNTER_CREATION_PROBABILITY(0.05, 0, 1, false),
+    /** A probabilidade de uma árvore ser criada. */
+    TREE_CREATION_PROBABILITY(0.05, 0, 1, false),
+    /** Duração de cada estação em passos. */
+    SEASON_LENGTH(50, 1, Integer.MAX_VALUE, true),
+
+    /** A idade na qual uma raposa pode começar a procriar. */
+    FOX_BREEDING_AGE(10, 0, Integer.MAX_VALUE, true),
+    /** A idade até a qual uma raposa pode viver. */
+    FOX_MAX_AGE(150, 1, Integer.MAX_VALUE, true),
+    /** A probabilidade de uma raposa procriar. */
+    FOX_BREEDING_PROBABILITY(0.4, 0, 1, false),
+    /** O número máximo de nascimentos (tamanho da ninhada) de uma raposa. */
+    FOX_MAX_LITTER_SIZE(3, 1, Integer.MAX_VALUE, true),
+    /**
+     * O valor nutricional de um único coelho. Com efeito, este é o
+     * número de passos que uma raposa pode dar antes de ter que comer novamente.
+     */
+    FOX_RABBIT_FOOD_VALUE(4, 1, Short.MAX_VALUE, true),
+
+    /** A idade na qual um coelho pode começar a procriar. */
+    RABBIT_BREEDING_AGE(5, 0, Integer.MAX_VALUE, true),
+    /** A idade até a qual um coelho pode viver. */
+    RABBIT_MAX_AGE(50, 1, Integer.MAX_VALUE, true),
+    /** A probabilidade de um coelho procriar. */
+    RABBIT_BREEDING_PROBABILITY(0.15, 0, 1, false),
+    /** O número máximo de nascimentos (tamanho da ninhada) de um coelho. */
+    RABBIT_MAX_LITTER_SIZE(5, 1, Integer.MAX_VALUE, true),
+
+    /** Depois de matar certa quantidade de animais, o caçador morre */
+    HUNTER_MAX_KILLS(100, 1, Integer.MAX_VALUE, true),
+    /** Quantidade de abates necessários para se reproduzir. */
+    HUNTER_KILLS_TO_BREED(3, 0, Integer.MAX_VALUE, true),
+    /** Energia máxima do caçador. */
+    HUNTER_MAX_ENERGY(150, 1, Short.MAX_VALUE, true),
+    /** Energia perdida por passo. */
+    HUNTER_ENERGY_LOSS(1, 0, Short.MAX_VALUE, true),
+    /** Tamanho máximo da ninhada de um caçador. */
+    HUNTER_MAX_LITTER_SIZE(3, 1, Integer.MAX_VALUE, true),
+    /** Probabilidade de reprodução de um caçador. */
+    HUNTER_BREEDING_PROBABILITY(0.50, 0, 1, false),
+    /** Idade máxima de um caçador. */
+    HUNTER_MAX_AGE(50, 1, Integer.MAX_VALUE, true),
+
+    /** O número máximo de frutos que uma árvore pode ter acumulado. */
+    TREE_MAX_FRUITS(5, 0, Short.MAX_VALUE, true),
+    /** Valor de energia que um fruto retorna. */
+    TREE_FRUIT_VALUE(40, 0, Short.MAX_VALUE, true),
+    /** A taxa de crescimento (chances de produzir um fruto a cada passo no verão). */
+    TREE_GROWTH_RATE(0.05, 0, 1, false),
+    /** Quanto a taxa de crescimento aumenta na primavera. */
+    TREE_SPRING_GROWTH_BONUS(0.02, 0, 1, false),
+
+    /**
+     * Quantos passos anteriores comparar (pelo hash do campo) para detectar
+     * que a disposição do campo se repetiu; 0 (o padrão) desliga a detecção.
+     */
+    CYCLE_HISTORY(0, 0, 1 << 20, true),
+    /**
+     * Passos da janela em que a tendência das populações é medida para
+     * detectar o estado estacionário; 0 desliga a detecção.
+     */
+    STEADY_STATE_WINDOW(0, 0, 1 << 20, true),
+    /**
+     * Variação máxima de cada população ao longo da janela (pela reta de
+     * tendência), relativa à sua média, para considerá-la estável.
+     */
+    STEADY_STATE_TOLERANCE(0.02, 0, Double.MAX_VALUE, false),
+    /**
+     * Alcance, em passos, da percepção de longo alcance: raposas e
+     * caçadores sem presa ao lado seguem os mapas de distância até a presa
+     * mais próxima (veja FlowFields); 0 desliga, e eles andam ao acaso.
+     */
+    FLOW_FIELD_RANGE(0, 0, 1 << 20, true);
+
+    /** O valor padrão. */
+    private final double defaultValue;
+    /** Os limites aceitos (inclusive). */
+    private final double min, max;
+    /** Se o parâmetro só aceita valores inteiros. */
+    private final boolean integer;
+
+    SimulationParameter(double defaultValue, double min, double max, boolean integer) {
+        this.defaultValue = defaultValue;
+        this.min = min;
+        this.max = max;
+        this.integer = integer;
+    }
+
+    /**
+     * @return O valor padrão do parâmetro.
+     */
+    public double getDefaultValue() {
+        return defaultValue;
+    }
+
+    /**
+     * @return O menor valor aceito.
+     */
+    public double getMin() {
+        return min;
+    }
+
+    /**
+     * @return O maior valor aceito.
+     */
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * @return Se o parâmetro só aceita valores inteiros.
+     */
+    public boolean isInteger() {
+        return integer;
+    }
+}
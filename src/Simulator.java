@@ -1,15 +1,17 @@
-import java.util.Random;
 import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
 import java.util.List;
 import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.Collections;
 import java.awt.Color;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.function.IntFunction;
+import javax.management.JMException;
 
 /**
  * Um simulador simples de predador-presa, baseado em um campo contendo
@@ -26,38 +28,85 @@ public class Simulator {
     private static final int DEFAULT_WIDTH = 50;
     /** A profundidade padrão do campo. */
     private static final int DEFAULT_DEPTH = 50;
-    /** A probabilidade de uma raposa ser criada em qualquer posição do campo. */
-    private static final double FOX_CREATION_PROBABILITY = 0.02;
-    /** A probabilidade de um coelho ser criado em qualquer posição do campo. */
-    private static final double RABBIT_CREATION_PROBABILITY = 0.08;
-    /** A probabilidade de um caçador ser criado (Baixa densidade). */
-    private static final double HUNTER_CREATION_PROBABILITY = 0.05;
-    /** A probabilidade de uma árvore ser criada. */
-    private static final double TREE_CREATION_PROBABILITY = 0.05;
+    /** Passos por segundo quando há visualização (veja StepScheduler). */
+    public static final double DEFAULT_VIEW_RATE = 200;
+    /** Passos de uma simulação longa (runLongSimulation). */
+    private static final int LONG_SIMULATION_STEPS = 500;
 
     /** A lista de atores no campo (renomeado de animais para ser genérico) */
-    private List<Actor> actors;
+    private ActorList actors;
     /** A lista de atores que acabaram de nascer */
     private List<Actor> newActors;
-    /** Lista de obstáculos (pedras, etc) */
+    /**
+     * Lista de obstáculos (pedras, etc). São os objetos criados pela
+     * simulação, sempre com localização: a pedra genérica dos blocos sólidos
+     * (veja ChunkedFieldLayer) só é devolvida pelo campo e nunca entra aqui.
+     */
     private List<Obstacles> obstacles;
+    /**
+     * As árvores, que ficam na camada estática e não agem a cada passo:
+     * os frutos são calculados quando consultados (veja Tree).
+     */
+    private List<Tree> trees;
     /** O estado atual do campo */
     private Field field;
     /** Um segundo campo, usado para construir o próximo estágio da simulação. */
     private Field updatedField;
     /** O passo atual da simulação. */
     private int step;
-    /** Uma visualização gráfica da simulação. */
+    /** Uma visualização gráfica da simulação (null no modo headless). */
     private SimulatorView view;
-    /** A estação do ano atual (string). */
-    private static String currentSeason;
+    /** Quadros publicados para a visualização (null no modo headless). */
+    private FrameBuffer frames;
+    /**
+     * Contagens da população por espécie, mantidas a cada nascimento e morte.
+     */
+    private FieldStats stats;
+    /**
+     * Os parâmetros desta simulação (probabilidades de criação e
+     * características das espécies).
+     */
+    private final SimulationConfig config;
+    /** O relógio de estações desta simulação, consultado pelas árvores. */
+    private final SeasonClock clock;
+    /** Detecta ciclos e estado estacionário a cada passo. */
+    private final SteadyStateDetector detector;
+    /** Ciclo ou estado estacionário detectado no último passo (ou null). */
+    private StopReason detected;
+    /** Por que a última chamada de simulate terminou. */
+    private StopReason stopReason;
+    /** Destino das métricas de cada passo (null se não houver). */
+    private MetricsSink metricsSink;
+    /** As métricas do passo atual, reutilizadas a cada passo. */
+    private final StepMetrics metrics = new StepMetrics();
+    /** Grava o campo de cada passo para replay (null se não houver). */
+    private ReplayRecorder replayRecorder;
+    /** Mede o tempo de cada fase do passo (null se desligado). */
+    private StepProfiler profiler;
+    /** Expõe a simulação por JMX (null se desligado). */
+    private SimulationMonitor monitor;
+    /** Mortes no passo atual. */
+    private int stepDeaths;
 
-    /** Duração de cada estação em passos. */
-    private static final int SEASON_LENGTH = 50;
-    /** Gerador de números aleatórios */
-    private Random rand = new Random();
-    /** Flag para controlar se a simulação está rodando ou parada. */
-    private boolean notSimulating;
+    /** Decide quando cada passo roda e atende pausa e checkpoints. */
+    private final StepScheduler scheduler = new StepScheduler(this);
+
+    /** O mapa padrão de pedras. */
+    private static final String DEFAULT_MAP_FILE = "src/mapas/map.txt";
+    /** O arquivo de mapa usado ao redefinir a simulação. */
+    private String mapFile = DEFAULT_MAP_FILE;
+
+    /** A semente da simulação; a mesma semente reproduz a mesma execução. */
+    private long seed;
+    /** Fluxo aleatório raiz, do qual derivam os fluxos de cada ator. */
+    private RandomStream rand;
+    /** Executor dos passos em paralelo (null para o passo sequencial). */
+    private ParallelStepper parallelStepper;
+    /**
+     * Os mapas de distância até as presas, recalculados no início de cada
+     * passo; null se FLOW_FIELD_RANGE for 0.
+     */
+    private FlowFields flowFields;
 
     /**
      * Constrói um campo de simulação com tamanho padrão.
@@ -73,6 +122,48 @@ public class Simulator {
      * @param width A largura do campo.
      */
     public Simulator(int depth, int width) {
+        this(depth, width, false);
+    }
+
+    /**
+     * Cria um campo de simulação com o tamanho fornecido, opcionalmente sem
+     * interface gráfica. No modo headless nenhuma janela é criada, os passos
+     * rodam sem pausa e erros são reportados no console.
+     * 
+     * @param depth    A profundidade (altura) do campo.
+     * @param width    A largura do campo.
+     * @param headless Se true, a simulação roda sem SimulatorView.
+     */
+    public Simulator(int depth, int width, boolean headless) {
+        this(depth, width, headless, System.nanoTime());
+    }
+
+    /**
+     * Cria um campo de simulação com o tamanho e a semente fornecidos.
+     * Duas simulações com os mesmos parâmetros e a mesma semente evoluem de
+     * forma idêntica, inclusive no modo paralelo.
+     * 
+     * @param depth    A profundidade (altura) do campo.
+     * @param width    A largura do campo.
+     * @param headless Se true, a simulação roda sem SimulatorView.
+     * @param seed     A semente dos números aleatórios.
+     */
+    public Simulator(int depth, int width, boolean headless, long seed) {
+        this(depth, width, headless, seed, SimulationConfig.DEFAULT);
+    }
+
+    /**
+     * Cria um campo de simulação com o tamanho, a semente e os parâmetros
+     * fornecidos. Simulações com parâmetros diferentes não compartilham
+     * estado e podem rodar ao mesmo tempo (veja SweepRunner).
+     * 
+     * @param depth    A profundidade (altura) do campo.
+     * @param width    A largura do campo.
+     * @param headless Se true, a simulação roda sem SimulatorView.
+     * @param seed     A semente dos números aleatórios.
+     * @param config   Os parâmetros da simulação.
+     */
+    public Simulator(int depth, int width, boolean headless, long seed, SimulationConfig config) {
         if (width <= 0 || depth <= 0) {
             System.out.println("The dimensions must be greater than zero.");
             System.out.println("Using default values.");
@@ -80,42 +171,101 @@ public class Simulator {
             width = DEFAULT_WIDTH;
         }
 
+        this.seed = seed;
+        this.config = config;
+        clock = new SeasonClock(config.getInt(SimulationParameter.SEASON_LENGTH));
+        detector = new SteadyStateDetector(config);
+
         // Usa uma lista genérica para qualquer Actor
-        actors = new ArrayList<>();
+        actors = new ActorList();
         newActors = new ArrayList<>();
         obstacles = new ArrayList<>();
+        trees = new ArrayList<>();
         field = new Field(depth, width);
-        updatedField = new Field(depth, width);
+        int flowRange = config.getInt(SimulationParameter.FLOW_FIELD_RANGE);
+        if (flowRange > 0) {
+            flowFields = new FlowFields(depth, width, flowRange);
+            field.setFlowFields(flowFields);
+        }
+        updatedField = new Field(field);
+        stats = new FieldStats();
+
+        if (!headless) {
+            createView(depth, width);
+        }
 
+        // Configura um ponto de partida válido.
+        reset();
+    }
+
+    /**
+     * Cria a visualização gráfica e conecta o botão de passo à simulação.
+     * 
+     * @param depth A profundidade (altura) do campo.
+     * @param width A largura do campo.
+     */
+    private void createView(int depth, int width) {
+        frames = new FrameBuffer(depth, width, SimulatorView.TARGET_FPS);
+        scheduler.setFixedRate(DEFAULT_VIEW_RATE);
+        try {
+            SwingUtilities.invokeAndWait(() -> buildView(depth, width));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException("Erro ao criar a visualização", e.getCause());
+        }
+    }
+
+    /**
+     * Monta a visualização na EDT.
+     * 
+     * @param depth A profundidade (altura) do campo.
+     * @param width A largura do campo.
+     */
+    private void buildView(int depth, int width) {
         // Cria uma visualização do estado de cada localização no campo.
-        view = new SimulatorView(depth, width);
+        view = new SimulatorView(depth, width, frames);
 
-        // Define as cores para cada classe de ator na visualização
-        view.setColor(Fox.class, Color.blue);
-        view.setColor(Rabbit.class, Color.orange);
-        view.setColor(Hunter.class, Color.magenta);
-        view.setColor(Tree.class, Color.green);
-        view.setColor(Stone.class, Color.gray);
+        setDefaultColors(view);
 
         // Conectar o botão da View à lógica do Simulator
         // Isso permite controlar o "passo a passo" pela interface gráfica
-        view.setStepListener(new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                if (notSimulating) {
-                    simulateOneStep();
-                } else {
-                    JOptionPane.showMessageDialog(null,
-                            "A simulação está em andamento. Aguarde a conclusão antes de usar o modo passo a passo.");
-                }
-            }
-        });
+        // Os passos nunca rodam na EDT: o escalonador os executa na thread
+        // da simulação (veja StepScheduler).
+        view.setStepListener(e -> scheduler.step());
+        view.addControl("Pausar/Continuar", e -> togglePause());
+        view.addControl("Mais lento", e -> scheduler.setFixedRate(Math.max(getViewRate() / 2, 1)));
+        view.addControl("Mais rápido", e -> scheduler.setFixedRate(getViewRate() * 2));
+    }
+
+    /**
+     * Pausa a simulação em andamento, ou a continua. Sem execução em
+     * andamento, começa uma longa (runLongSimulation) em uma thread própria.
+     */
+    private void togglePause() {
+        scheduler.togglePause(LONG_SIMULATION_STEPS);
+    }
 
-        notSimulating = true;
-        currentSeason = "spring"; // Começa na primavera
+    /**
+     * @return A taxa atual dos passos na visualização (a padrão, se não
+     *         houver taxa fixa).
+     */
+    private double getViewRate() {
+        double rate = scheduler.getTargetStepRate();
+        return rate > 0 ? rate : DEFAULT_VIEW_RATE;
+    }
 
-        // Configura um ponto de partida válido.
-        reset();
+    /**
+     * Define as cores de cada espécie na visualização.
+     * 
+     * @param view A visualização.
+     */
+    static void setDefaultColors(SimulatorView view) {
+        view.setColor(Species.FOX, Color.blue);
+        view.setColor(Species.RABBIT, Color.orange);
+        view.setColor(Species.HUNTER, Color.magenta);
+        view.setColor(Species.TREE, Color.green);
+        view.setColor(Species.STONE, Color.gray);
     }
 
     /**
@@ -141,10 +291,11 @@ public class Simulator {
                     if (symbol == 'X' || symbol == 'x') {
                         // Verifica se a posição é válida e está vazia
                         if (field.getObjectAt(row, col) == null) {
-                            Location loc = new Location(row, col);
+                            Location loc = field.getLocation(row, col);
                             Stone stone = new Stone(loc);
-                            field.place(stone, loc);
+                            field.placeStatic(stone, loc);
                             obstacles.add(stone);
+                            stats.increment(Species.STONE);
                         }
                     }
                 }
@@ -153,7 +304,11 @@ public class Simulator {
             reader.close();
         } catch (IOException e) {
             String mensagemExceção = "Erro ao carregar mapa: " + e.getMessage();
-            JOptionPane.showMessageDialog(null, mensagemExceção + "\n Gerando pedras aleatórias...");
+            if (view != null) {
+                JOptionPane.showMessageDialog(null, mensagemExceção + "\n Gerando pedras aleatórias...");
+            } else {
+                System.err.println(mensagemExceção + " - Gerando pedras aleatórias...");
+            }
             // Opcional: Se der erro ao ler o arquivo, gera pedras aleatórias como fallback
             putStonesInField(field);
         }
@@ -165,29 +320,87 @@ public class Simulator {
      * (Define 500 passos como padrão).
      */
     public void runLongSimulation() {
-        simulate(500);
+        simulate(LONG_SIMULATION_STEPS);
     }
 
     /**
      * Executa a simulação a partir do seu estado atual pelo número fornecido de
      * passos.
-     * Para antes se a simulação deixar de ser viável (ex: extinção).
+     * Para antes se a simulação deixar de ser viável (ex: extinção), se o
+     * campo repetir um conteúdo recente ou se as populações se estabilizarem
+     * (veja SteadyStateDetector); o motivo fica em getStopReason().
+     * O ritmo dos passos, a pausa e o passo único são controlados pelo
+     * escalonador (getScheduler); no modo headless os passos são executados
+     * sem pausa, e com visualização a DEFAULT_VIEW_RATE passos por segundo.
      * 
      * @param numSteps O número de passos a executar.
      */
     public void simulate(int numSteps) {
-        for (int step = 1; step <= numSteps && view.isViable(field); step++) {
-            notSimulating = false;
-            try {
-                // Pausa por X milissegundos entre cada passo.
-                // Aumente este número para deixar mais lento (ex: 500 para meio segundo).
-                Thread.sleep(5);
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
-            simulateOneStep();
+        stopReason = scheduler.run(numSteps);
+    }
+
+    /**
+     * @return O escalonador dos passos desta simulação: modo de ritmo,
+     *         pausa, passo único, checkpoints pedidos de outras threads e
+     *         execução em uma thread própria.
+     */
+    public StepScheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Registra a simulação no servidor de MBeans da plataforma (veja
+     * SimulationMonitor), para ser acompanhada e controlada por JMX.
+     * 
+     * @return O monitor registrado.
+     * @throws JMException Se o registro falhar.
+     */
+    public SimulationMonitor startMonitor() throws JMException {
+        if (monitor == null) {
+            monitor = new SimulationMonitor(this);
+            monitor.recordStep(step, stats, actors.size(), 0, 0, clock.getSeasonIndex());
+        }
+        return monitor;
+    }
+
+    /**
+     * Remove a simulação do servidor de MBeans, se registrada.
+     */
+    public void stopMonitor() {
+        if (monitor != null) {
+            monitor.unregister();
+            monitor = null;
         }
-        notSimulating = true;
+    }
+
+    /**
+     * Verifica se a simulação deve parar antes do próximo passo.
+     * 
+     * @return O motivo da parada, ou null para continuar.
+     */
+    StopReason checkStop() {
+        if (!stats.hasAnimals()) {
+            return StopReason.EXTINCTION;
+        }
+        if (!isViable()) {
+            return StopReason.NOT_VIABLE;
+        }
+        return detected;
+    }
+
+    /**
+     * @return Por que a última chamada de simulate terminou (null antes da
+     *         primeira).
+     */
+    public StopReason getStopReason() {
+        return stopReason;
+    }
+
+    /**
+     * @return O período do ciclo, se a simulação parou por CYCLE (0 se não).
+     */
+    public int getCyclePeriod() {
+        return stopReason == StopReason.CYCLE ? detector.getCyclePeriod() : 0;
     }
 
     /**
@@ -196,68 +409,552 @@ public class Simulator {
      */
     public void simulateOneStep() {
         step++;
+        if (profiler != null) {
+            profiler.beginStep(step);
+        }
         newActors.clear();
-        // Deixa todos os atores agirem
-        for (Iterator iter = actors.iterator(); iter.hasNext();) {
-            Object obj = iter.next();
-            // Usar Actor em vez de Animal permite polimorfismo (animais, caçadores, etc.)
-            if (obj instanceof Actor) {
-                Actor actor = (Actor) obj;
-                if (actor.isAlive()) {
-                    actor.act(field, updatedField, newActors);
-                } else {
-                    iter.remove();
-                }
-            } else {
-                System.out.println("found unknown actor");
-            }
+        stepDeaths = 0;
+        if (metricsSink != null) {
+            metrics.begin(step);
+        }
+        if (flowFields != null) {
+            flowFields.update(field);
+        }
+        endPhase(StepProfiler.Phase.FLOW);
+        actors.newVisitOrder(rand);
+        if (parallelStepper != null) {
+            parallelStepper.step(actors, field, updatedField, newActors, profiler);
+        } else {
+            actSequentially();
         }
+        endPhase(StepProfiler.Phase.ACT);
+        removeDeadActors();
+        endPhase(StepProfiler.Phase.REMOVE_DEAD);
         // Adiciona atores recém-nascidos à lista principal
         actors.addAll(newActors);
-
-        // Obstáculos (como pedras) não agem, mas precisam ser copiados para o novo
-        // campo
-        for (Obstacles obstacle : obstacles) {
-            if (obstacle instanceof Stone) {
-                Stone stone = (Stone) obstacle;
-                Location loc = stone.getLocation();
-                // Garante que a pedra esteja presente no campo “novo”
-                updatedField.place(stone, loc);
+        for (int i = 0; i < newActors.size(); i++) {
+            Species species = newActors.get(i).getSpecies();
+            stats.increment(species);
+            if (metricsSink != null) {
+                metrics.recordBirth(species);
             }
         }
+        endPhase(StepProfiler.Phase.BIRTHS);
+
+        // Obstáculos (como pedras) e árvores ficam na camada estática,
+        // compartilhada pelos dois campos, e não precisam ser copiados. As
+        // árvores crescem ao fim do passo, quando o relógio avança.
 
         // Troca o campo (field) e o campo atualizado (updatedField) ao final do passo.
         Field temp = field;
         field = updatedField;
         updatedField = temp;
         updatedField.clear();
+        endPhase(StepProfiler.Phase.SWAP);
 
         updateSeason();
+        detected = detector.update(field.getHash(), stats);
+        endPhase(StepProfiler.Phase.DETECT);
+
+        if (metricsSink != null) {
+            recordMetrics();
+        }
+        endPhase(StepProfiler.Phase.METRICS);
+        if (replayRecorder != null) {
+            recordReplay();
+        }
 
-        // Exibe o novo campo na tela
-        view.showStatus(step, field, currentSeason);
+        // Publica o novo campo para a visualização, se for hora de um quadro
+        publishFrame(false);
+        if (profiler != null) {
+            profiler.endPhase(StepProfiler.Phase.RENDER);
+            profiler.endStep(actors.size());
+        }
+        if (monitor != null) {
+            monitor.recordStep(step, stats, actors.size(), newActors.size(), stepDeaths, clock.getSeasonIndex());
+        }
+    }
+
+    /**
+     * Marca o fim de uma fase do passo no perfilador, se houver um.
+     */
+    private void endPhase(StepProfiler.Phase phase) {
+        if (profiler != null) {
+            profiler.endPhase(phase);
+        }
+    }
+
+    /**
+     * Liga ou desliga a medição do tempo de cada fase dos passos (veja
+     * StepProfiler).
+     * 
+     * @param profiler O perfilador, ou null para desligar.
+     */
+    public void setProfiler(StepProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    /**
+     * Completa as métricas do passo e as envia ao destino.
+     */
+    private void recordMetrics() {
+        for (int i = 0; i < trees.size(); i++) {
+            metrics.addFruit(trees.get(i).getFruitCount());
+        }
+        metrics.finish(stats, clock.getSeasonIndex());
+        try {
+            metricsSink.record(metrics);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao gravar métricas", e);
+        }
+    }
+
+    /**
+     * Define o destino das métricas de cada passo (população, nascimentos e
+     * mortes por causa, estoque de frutos, estação). O simulador não fecha o
+     * destino; isso cabe a quem o criou.
+     * 
+     * @param metricsSink O destino, ou null para não registrar métricas.
+     */
+    public void setMetricsSink(MetricsSink metricsSink) {
+        this.metricsSink = metricsSink;
+    }
+
+    /**
+     * Define onde gravar o campo de cada passo para replay (veja
+     * ReplayPlayer). O estado atual é gravado imediatamente, como primeiro
+     * quadro. O simulador não fecha o registro; isso cabe a quem o criou.
+     * 
+     * @param replayRecorder O registro, ou null para não gravar.
+     */
+    public void setReplayRecorder(ReplayRecorder replayRecorder) {
+        this.replayRecorder = replayRecorder;
+        if (replayRecorder != null) {
+            recordReplay();
+        }
+    }
+
+    /**
+     * Grava o campo atual no registro de replay.
+     */
+    private void recordReplay() {
+        try {
+            replayRecorder.record(step, clock.getSeasonIndex(), field);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao gravar replay", e);
+        }
+    }
+
+    /**
+     * Faz os atores vivos agirem um de cada vez, na ordem de visita sorteada
+     * para o passo (veja ActorList).
+     */
+    private void actSequentially() {
+        // Usar Actor em vez de Animal permite polimorfismo (animais, caçadores, etc.)
+        actors.forEachInVisitOrder(actor -> {
+            if (!actor.isAlive()) {
+                return;
+            }
+            if (profiler != null && profiler.sampleNextActor()) {
+                long start = System.nanoTime();
+                actor.act(field, updatedField, newActors);
+                profiler.addActorSample(actor.getSpecies(), System.nanoTime() - start);
+            } else {
+                actor.act(field, updatedField, newActors);
+            }
+        });
+    }
+
+    /**
+     * Remove da lista os atores que morreram neste passo (inclusive os
+     * mortos por outros atores) e desconta cada um da contagem da sua
+     * espécie, em uma única passada. Os vivos mantêm a ordem relativa.
+     * Quando há métricas, a mesma passada registra as causas de morte.
+     */
+    private void removeDeadActors() {
+        boolean recording = metricsSink != null;
+        actors.removeDead(actor -> {
+            stepDeaths++;
+            stats.decrement(actor.getSpecies());
+            if (recording) {
+                metrics.recordDeath(actor.getSpecies(), actor.getDeathCause());
+            }
+        });
+    }
+
+    /**
+     * Cria uma cópia do estado atual no motor orientado a dados
+     * (ColumnarSimulation), que pode continuar a simulação sem objetos por
+     * animal.
+     * 
+     * @return O motor com os mesmos animais, árvores, pedras e passo.
+     */
+    public ColumnarSimulation toColumnar() {
+        return toColumnar(HeapCellGrid::new);
+    }
+
+    /**
+     * Como toColumnar(), mas com as grades do motor criadas por uma fábrica
+     * (por exemplo, fora do heap; veja OffHeapCellGrid).
+     * 
+     * @param grids Cria uma grade com o número de células pedido.
+     * @return O motor com os mesmos animais, árvores, pedras e passo.
+     */
+    public ColumnarSimulation toColumnar(IntFunction<CellGrid> grids) {
+        ColumnarSimulation columnar = new ColumnarSimulation(field.getDepth(), field.getWidth(), seed, config, grids);
+        for (Obstacles obstacle : obstacles) {
+            Location loc = locationOf(obstacle);
+            columnar.addStone(loc.getRow(), loc.getCol());
+        }
+        for (Tree tree : trees) {
+            Location loc = tree.getLocation();
+            columnar.addTree(loc.getRow(), loc.getCol(), tree.getFruitCount());
+        }
+        for (Actor actor : actors) {
+            if (!actor.isAlive()) {
+                continue;
+            }
+            Location loc = actor.getLocation();
+            if (actor instanceof Fox) {
+                Fox fox = (Fox) actor;
+                columnar.addFox(loc.getRow(), loc.getCol(), fox.getAge(), fox.getFoodLevel());
+            } else if (actor instanceof Rabbit) {
+                columnar.addRabbit(loc.getRow(), loc.getCol(), ((Rabbit) actor).getAge());
+            } else if (actor instanceof Hunter) {
+                Hunter hunter = (Hunter) actor;
+                columnar.addHunter(loc.getRow(), loc.getCol(), hunter.getAge(), hunter.getEnergy());
+            }
+        }
+        columnar.setStep(step);
+        return columnar;
+    }
+
+    /**
+     * Grava o estado completo da simulação em um checkpoint: dimensões,
+     * semente, passo, estação, estado do fluxo aleatório, pedras, árvores
+     * (com frutos e fluxo aleatório próprio) e cada ator (na ordem da lista,
+     * com idade, comida, energia, abates e fluxo aleatório próprio), além
+     * dos animais mortos que ainda ocupam o campo.
+     * Restaurado com loadCheckpoint, a simulação continua
+     * exatamente como continuaria sem a interrupção.
+     * 
+     * @param file     O arquivo (substituído se existir).
+     * @param compress Se true, o corpo é comprimido.
+     * @throws IOException Se a escrita falhar.
+     */
+    public void saveCheckpoint(Path file, boolean compress) throws IOException {
+        ByteBuffer out = Checkpoint.newBody(64 + obstacles.size() * 8 + trees.size() * 28 + actors.size() * 40);
+        out.putInt(field.getDepth()).putInt(field.getWidth()).putLong(seed);
+        out.putInt(step).putInt(clock.getSeasonIndex());
+        out.putLong(rand.getState()).putLong(rand.getGamma());
+
+        out.putInt(obstacles.size());
+        for (Obstacles obstacle : obstacles) {
+            Location loc = locationOf(obstacle);
+            out.putInt(loc.getRow()).putInt(loc.getCol());
+        }
+
+        out.putInt(trees.size());
+        for (Tree tree : trees) {
+            RandomStream treeRand = tree.getRandom();
+            out.putInt(tree.getLocation().getRow()).putInt(tree.getLocation().getCol());
+            out.putLong(treeRand.getState()).putLong(treeRand.getGamma());
+            out.putInt(tree.getFruitCount());
+        }
+
+        out.putInt(actors.size());
+        for (Actor actor : actors) {
+            Location loc = actor.getLocation();
+            // Um filhote pode ter sido colocado por cima de outro ator; só
+            // quem aparece no campo volta para ele.
+            boolean onField = field.getObjectAt(loc) == actor;
+            out.put((byte) actor.getSpecies().ordinal()).put((byte) (onField ? 1 : 0));
+            out.putInt(loc.getRow()).putInt(loc.getCol());
+            RandomStream actorRand = ((Animal) actor).getRandom();
+            out.putLong(actorRand.getState()).putLong(actorRand.getGamma());
+            if (actor instanceof Fox) {
+                Fox fox = (Fox) actor;
+                out.putInt(fox.getAge()).putInt(fox.getFoodLevel());
+            } else if (actor instanceof Rabbit) {
+                out.putInt(((Rabbit) actor).getAge());
+            } else if (actor instanceof Hunter) {
+                Hunter hunter = (Hunter) actor;
+                out.putInt(hunter.getAge()).putInt(hunter.getEnergy()).putInt(hunter.getKillCount());
+            }
+        }
+
+        // Animais mortos neste passo depois de já terem se movido continuam
+        // ocupando sua célula até o próximo passo.
+        List<Location> corpses = new ArrayList<>();
+        for (int row = 0; row < field.getDepth(); row++) {
+            for (int col = 0; col < field.getWidth(); col++) {
+                Object object = field.getObjectAt(row, col);
+                if (object instanceof Animal && !((Animal) object).isAlive()) {
+                    corpses.add(field.getLocation(row, col));
+                }
+            }
+        }
+        out = ensureCapacity(out, corpses.size() * 9 + 4);
+        out.putInt(corpses.size());
+        for (Location loc : corpses) {
+            out.put((byte) ((Actor) field.getObjectAt(loc)).getSpecies().ordinal());
+            out.putInt(loc.getRow()).putInt(loc.getCol());
+        }
+        Checkpoint.write(file, out, compress);
+    }
+
+    /**
+     * @return O corpo com pelo menos extra bytes livres (o mesmo, se já
+     *         couberem).
+     */
+    private static ByteBuffer ensureCapacity(ByteBuffer out, int extra) {
+        if (out.remaining() >= extra) {
+            return out;
+        }
+        ByteBuffer larger = Checkpoint.newBody(out.position() + extra);
+        out.flip();
+        return larger.put(out);
+    }
+
+    /**
+     * Substitui o estado da simulação pelo de um checkpoint gravado com
+     * saveCheckpoint. O campo precisa ter as mesmas dimensões. O histórico
+     * de ciclos e de tendência (SteadyStateDetector) não é gravado e recomeça
+     * a partir do estado restaurado.
+     * 
+     * @param file O arquivo.
+     * @throws IOException Se a leitura falhar ou o checkpoint não servir.
+     */
+    public void loadCheckpoint(Path file) throws IOException {
+        ByteBuffer in = Checkpoint.read(file);
+        int depth = in.getInt();
+        int width = in.getInt();
+        if (depth != field.getDepth() || width != field.getWidth()) {
+            throw new IOException("Checkpoint de um campo " + depth + "x" + width + ", mas o campo é "
+                    + field.getDepth() + "x" + field.getWidth());
+        }
+        seed = in.getLong();
+        step = in.getInt();
+        in.getInt(); // estação salva; é derivada do passo
+        rand = RandomStream.restore(in.getLong(), in.getLong());
+        // As árvores restauradas partem do passo atual do relógio.
+        updateSeason();
+
+        actors.clear();
+        obstacles.clear();
+        trees.clear();
+        stats.reset();
+        field.clear();
+        field.clearStatic();
+        updatedField.clear();
+
+        int stoneCount = in.getInt();
+        for (int i = 0; i < stoneCount; i++) {
+            Location loc = field.getLocation(in.getInt(), in.getInt());
+            Stone stone = new Stone(loc);
+            field.placeStatic(stone, loc);
+            obstacles.add(stone);
+            stats.increment(Species.STONE);
+        }
+
+        int treeCount = in.getInt();
+        for (int i = 0; i < treeCount; i++) {
+            Location loc = field.getLocation(in.getInt(), in.getInt());
+            RandomStream treeRand = RandomStream.restore(in.getLong(), in.getLong());
+            Tree tree = new Tree(treeRand, config, clock, in.getInt());
+            tree.setLocation(loc);
+            field.placeStatic(tree, loc);
+            trees.add(tree);
+            stats.increment(Species.TREE);
+        }
+
+        Species[] species = Species.values();
+        int actorCount = in.getInt();
+        for (int i = 0; i < actorCount; i++) {
+            Species kind = species[in.get()];
+            boolean onField = in.get() != 0;
+            Location loc = field.getLocation(in.getInt(), in.getInt());
+            RandomStream actorRand = RandomStream.restore(in.getLong(), in.getLong());
+            Actor actor;
+            switch (kind) {
+                case FOX:
+                    actor = new Fox(actorRand, config, in.getInt(), in.getInt());
+                    break;
+                case RABBIT:
+                    actor = new Rabbit(actorRand, config, in.getInt());
+                    break;
+                case HUNTER:
+                    actor = new Hunter(actorRand, config, in.getInt(), in.getInt(), in.getInt());
+                    break;
+                default:
+                    throw new IOException("Espécie inesperada no checkpoint: " + kind);
+            }
+            ((Animal) actor).setLocation(loc);
+            if (onField) {
+                field.place(actor, loc);
+            }
+            actors.add(actor);
+            stats.increment(kind);
+        }
+
+        int corpseCount = in.getInt();
+        for (int i = 0; i < corpseCount; i++) {
+            Species kind = species[in.get()];
+            Location loc = field.getLocation(in.getInt(), in.getInt());
+            Animal corpse;
+            switch (kind) {
+                case FOX:
+                    corpse = new Fox(rand, config, 0, 0);
+                    break;
+                case RABBIT:
+                    corpse = new Rabbit(rand, config, 0);
+                    break;
+                case HUNTER:
+                    corpse = new Hunter(rand, config, 0, 0, 0);
+                    break;
+                default:
+                    throw new IOException("Espécie inesperada no checkpoint: " + kind);
+            }
+            corpse.setDead(DeathCause.PREDATION);
+            corpse.setLocation(loc);
+            field.place(corpse, loc);
+        }
+        restartDetector();
+        publishFrame(true);
+    }
+
+    /**
+     * @return A localização de um obstáculo da lista de obstáculos.
+     * @throws IllegalStateException Se o obstáculo não tiver localização
+     *                               (a pedra genérica de um bloco sólido).
+     */
+    private static Location locationOf(Obstacles obstacle) {
+        Location location = obstacle.getLocation();
+        if (location == null) {
+            throw new IllegalStateException("Obstáculo sem localização: " + obstacle.getSpecies());
+        }
+        return location;
+    }
+
+    /**
+     * Esquece o histórico do detector e registra o estado atual como o
+     * primeiro da nova história.
+     */
+    private void restartDetector() {
+        detector.reset();
+        detected = detector.update(field.getHash(), stats);
+    }
+
+    /**
+     * Define quantas threads executam cada passo. Com mais de uma thread o
+     * campo é dividido em ladrilhos processados em paralelo (veja
+     * ParallelStepper para a ordem em que os atores agem nesse modo).
+     * 
+     * @param threads O número de threads; 1 volta ao passo sequencial.
+     */
+    public void setParallelism(int threads) {
+        if (parallelStepper != null) {
+            parallelStepper.shutdown();
+            parallelStepper = null;
+        }
+        if (threads > 1) {
+            parallelStepper = new ParallelStepper(threads);
+        }
+        // Ladrilhos vizinhos compartilham palavras dos mapas de bits.
+        field.setConcurrent(threads > 1);
+        updatedField.setConcurrent(threads > 1);
+    }
+
+    /**
+     * Determina se a simulação deve continuar rodando, a partir das contagens
+     * mantidas pela própria simulação, sem consultar a visualização.
+     * 
+     * @return true Se houver mais de uma espécie no campo.
+     */
+    public boolean isViable() {
+        return stats.isViable();
+    }
+
+    /**
+     * @return Uma descrição da população atual (contagem por espécie).
+     */
+    public String getPopulationDetails() {
+        return stats.getPopulationDetails();
+    }
+
+    /**
+     * Retorna a contagem atual de uma espécie.
+     * 
+     * @param species A espécie.
+     * @return Quantos indivíduos da espécie existem.
+     */
+    public int getCount(Species species) {
+        return stats.getCount(species);
+    }
+
+    /**
+     * Copia o estado atual para um quadro e o publica para a visualização,
+     * se houver uma. Para não limitar a simulação ao ritmo da pintura, os
+     * passos entre dois quadros não são copiados, a não ser quando forçado.
+     * 
+     * @param force Se true, publica mesmo antes do intervalo entre quadros.
+     */
+    void publishFrame(boolean force) {
+        if (frames != null && (force || frames.isFrameDue())) {
+            FieldSnapshot frame = frames.getBackBuffer();
+            frame.capture(step, clock.getSeasonName(), stats.getPopulationDetails(), field);
+            frames.publish();
+        }
+    }
+
+    /**
+     * @return A semente desta simulação.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @return O passo atual da simulação.
+     */
+    public int getStep() {
+        return step;
     }
 
     /**
      * Redefine a simulação para uma posição inicial.
-     * Limpa o campo e repopula.
+     * Limpa o campo e repopula a partir da semente da simulação.
      */
     public void reset() {
         step = 0;
+        rand = new RandomStream(seed);
+        // As árvores criadas em populate partem do passo 0.
+        updateSeason();
         actors.clear();
+        trees.clear();
+        stats.reset();
         field.clear();
+        field.clearStatic();
         updatedField.clear();
 
         // Adicionando as pedras com base nos arquivos de mapa dentro da pasta mapas
-        loadStonesFromFile("src/mapas/map.txt", field);
+        loadStonesFromFile(mapFile, field);
 
         populate(field);
 
-        currentSeason = "spring";
-        updateSeason();
+        restartDetector();
 
         // Mostra o estado inicial na visualização.
-        view.showStatus(step, field, currentSeason);
+        publishFrame(true);
+    }
+
+    /**
+     * Define o arquivo de mapa de pedras usado a partir do próximo reset().
+     * 
+     * @param mapFile O caminho do arquivo de texto (veja src/mapas).
+     */
+    public void setMapFile(String mapFile) {
+        this.mapFile = mapFile;
     }
 
     /**
@@ -268,18 +965,16 @@ public class Simulator {
     private void putStonesInField(Field field) {
         obstacles.clear();
         for (int i = 0; i < Stone.NUM_STONES; i++) {
-            int row = rand.nextInt(field.getDepth());
-            int col = rand.nextInt(field.getWidth());
-            // Verifica se já existe um objeto na posição
-            if (field.getObjectAt(row, col) == null) {
-                Location loc = new Location(row, col);
-                Stone stone = new Stone(loc);
-                field.place(stone, loc);
-                obstacles.add(stone);
-                placeAndPropagateStone(row, col, field);
-            } else {
-                i--; // Tenta novamente se a posição já estiver ocupada
+            // Sorteia entre as posições livres; para se o campo encher.
+            Location loc = field.randomFreeLocation(rand);
+            if (loc == null) {
+                break;
             }
+            Stone stone = new Stone(loc);
+            field.placeStatic(stone, loc);
+            obstacles.add(stone);
+            stats.increment(Species.STONE);
+            placeAndPropagateStone(loc.getRow(), loc.getCol(), field);
         }
     }
 
@@ -293,14 +988,15 @@ public class Simulator {
      */
     private void placeAndPropagateStone(int row, int col, Field field) {
         for (int i = 0; i < 6; i++) {
-            Location base = new Location(row, col);
-            Location loc = field.freeAdjacentLocation(base);
+            Location base = field.getLocation(row, col);
+            Location loc = field.freeAdjacentLocation(base, rand);
 
             // Se não há mais lugar livre em volta, para o laço
             if (loc != null) {
                 Stone stone = new Stone(loc);
-                field.place(stone, loc);
+                field.placeStatic(stone, loc);
                 obstacles.add(stone);
+                stats.increment(Species.STONE);
             }
         }
     }
@@ -322,54 +1018,43 @@ public class Simulator {
                     continue;
                 }
 
-                if (rand.nextDouble() <= FOX_CREATION_PROBABILITY) {
-                    Fox fox = new Fox(true);
+                if (rand.nextDouble() <= config.get(SimulationParameter.FOX_CREATION_PROBABILITY)) {
+                    Fox fox = new Fox(true, rand.split(), config);
                     actors.add(fox);
-                    fox.setLocation(row, col);
+                    stats.increment(fox.getSpecies());
+                    fox.setLocation(field.getLocation(row, col));
                     field.place(fox, row, col);
-                } else if (rand.nextDouble() <= RABBIT_CREATION_PROBABILITY) {
-                    Rabbit rabbit = new Rabbit(true);
+                } else if (rand.nextDouble() <= config.get(SimulationParameter.RABBIT_CREATION_PROBABILITY)) {
+                    Rabbit rabbit = new Rabbit(true, rand.split(), config);
                     actors.add(rabbit);
-                    rabbit.setLocation(row, col);
+                    stats.increment(rabbit.getSpecies());
+                    rabbit.setLocation(field.getLocation(row, col));
                     field.place(rabbit, row, col);
-                } else if (rand.nextDouble() <= HUNTER_CREATION_PROBABILITY) {
-                    Hunter hunter = new Hunter(true);
+                } else if (rand.nextDouble() <= config.get(SimulationParameter.HUNTER_CREATION_PROBABILITY)) {
+                    Hunter hunter = new Hunter(true, rand.split(), config);
                     actors.add(hunter);
-                    hunter.setLocation(row, col);
+                    stats.increment(hunter.getSpecies());
+                    hunter.setLocation(field.getLocation(row, col));
                     field.place(hunter, row, col);
-                } else if (rand.nextDouble() <= TREE_CREATION_PROBABILITY) {
-                    Tree tree = new Tree();
-                    actors.add(tree);
-                    tree.setLocation(new Location(row, col));
-                    field.place(tree, row, col);
+                } else if (rand.nextDouble() <= config.get(SimulationParameter.TREE_CREATION_PROBABILITY)) {
+                    Tree tree = new Tree(rand.split(), config, clock);
+                    trees.add(tree);
+                    stats.increment(tree.getSpecies());
+                    tree.setLocation(field.getLocation(row, col));
+                    field.placeStatic(tree, tree.getLocation());
                 }
                 // senão, deixa o local vazio
             }
         }
-        Collections.shuffle(actors);
+        rand.shuffle(actors);
     }
 
     /**
      * Atualiza a estação do ano atual baseada no número de passos.
-     * A estação muda a cada SEASON_LENGTH passos.
+     * A estação muda a cada SEASON_LENGTH passos (veja SimulationConfig).
      */
     private void updateSeason() {
-        int seasonIndex = (step / SEASON_LENGTH) % 4;
-        switch (seasonIndex) {
-            case 0:
-                currentSeason = "spring";
-                break;
-            case 1:
-                currentSeason = "summer";
-                break;
-            case 2:
-                currentSeason = "autumn";
-                break;
-            case 3:
-            default:
-                currentSeason = "winter";
-                break;
-        }
+        clock.setStep(step);
     }
 
     /**
@@ -377,7 +1062,14 @@ public class Simulator {
      * 
      * @return A estação atual da simulação.
      */
-    public static String getCurrentSeason() {
-        return currentSeason;
+    public String getCurrentSeason() {
+        return clock.getSeasonName();
+    }
+
+    /**
+     * @return Os parâmetros desta simulação.
+     */
+    public SimulationConfig getConfig() {
+        return config;
     }
 }
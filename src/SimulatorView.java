@@ -1,25 +1,40 @@
 import java.awt.*;
 import java.awt.event.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 import javax.swing.*;
-import java.util.HashMap;
+import java.util.Arrays;
 
 /**
  * Uma visualização gráfica da grade de simulação.
  * A visualização exibe um retângulo colorido para cada localização
  * representando seu conteúdo. Ela usa uma cor de fundo padrão.
  * Cores para cada tipo de espécie podem ser definidas usando o
- * método setColor.
+ * método setColor. As cores ficam numa paleta de inteiros RGB escritos
+ * diretamente nos pixels de uma imagem com um pixel por célula, que é
+ * ampliada uma única vez ao ser desenhada.
+ * 
+ * A visualização não lê o campo da simulação: um temporizador na thread da
+ * interface (EDT) pega, no máximo TARGET_FPS vezes por segundo, o quadro mais
+ * recente publicado pela simulação em um FrameBuffer e o desenha. Assim a
+ * simulação nunca espera pela pintura, e todas as alterações em componentes
+ * Swing acontecem na EDT.
  * 
  * @author GRUPO 05
  * @version 2025
  */
 public class SimulatorView extends JFrame {
+    private static final long serialVersionUID = 1L;
+
     /** Cores usadas para localizações vazias. */
     private static final Color EMPTY_COLOR = Color.white;
 
     /** Cor usada para objetos que não têm cor definida. */
     private static final Color UNKNOWN_COLOR = Color.gray;
 
+    /** Quantos quadros por segundo a visualização desenha, no máximo. */
+    public static final int TARGET_FPS = 30;
+
     private final String STEP_PREFIX = "Step: ";
     private final String POPULATION_PREFIX = "Population: ";
     private JLabel stepLabel, population;
@@ -27,23 +42,39 @@ public class SimulatorView extends JFrame {
 
     /** Botão que controla simulação passo por passo */
     private JButton stepButton;
+    /** Painel com o botão de passo e os controles adicionados. */
+    private JPanel controls;
+
+    /** As espécies, na ordem dos índices da paleta. */
+    private static final Species[] SPECIES = Species.values();
+    /** Cores das árvores em cada estação (primavera, verão, outono, inverno). */
+    private static final int[] TREE_SEASON_COLORS = {
+            Color.green.getRGB(), // Verde claro
+            new Color(0, 200, 55).getRGB(), // Verde escuro
+            Color.red.getRGB(), // vermelho
+            new Color(136, 70, 20).getRGB() // Marrom
+    };
+
+    /** Paleta RGB de cada espécie, indexada por Species.ordinal(). */
+    private int[] palette;
+
+    /** De onde vêm os quadros publicados pela simulação. */
+    private final FrameBuffer frames;
+    /** Dispara o desenho dos quadros na EDT. */
+    private final Timer frameTimer;
 
-    /** Um mapa para armazenar cores para participantes na simulação */
-    private HashMap colors;
     /**
-     * Um objeto de estatística calculando e armazenando informações da simulação
-     */
-    private FieldStats stats;
-
-    /**
-     * Cria uma visualização com a largura e altura fornecidas.
+     * Cria uma visualização com a largura e altura fornecidas. Deve ser
+     * chamado na EDT.
      * 
      * @param height A altura da simulação (linhas).
      * @param width  A largura da simulação (colunas).
+     * @param frames De onde vêm os quadros publicados pela simulação.
      */
-    public SimulatorView(int height, int width) {
-        stats = new FieldStats();
-        colors = new HashMap();
+    public SimulatorView(int height, int width, FrameBuffer frames) {
+        this.frames = frames;
+        palette = new int[SPECIES.length];
+        Arrays.fill(palette, UNKNOWN_COLOR.getRGB());
 
         setTitle("Fox and Rabbit Simulation - GRUPO 5");
 
@@ -75,9 +106,11 @@ public class SimulatorView extends JFrame {
         JPanel topPanel = new JPanel(new BorderLayout());
         topPanel.add(stepLabel, BorderLayout.CENTER);
 
-        // Painel inferior para População e Botão
+        // Painel inferior para População e Botões
+        controls = new JPanel(new FlowLayout());
+        controls.add(stepButton);
         JPanel bottomPanel = new JPanel(new BorderLayout());
-        bottomPanel.add(stepButton, BorderLayout.NORTH);
+        bottomPanel.add(controls, BorderLayout.NORTH);
         bottomPanel.add(population, BorderLayout.SOUTH);
 
         Container contents = getContentPane();
@@ -87,6 +120,9 @@ public class SimulatorView extends JFrame {
 
         pack();
         setVisible(true);
+
+        frameTimer = new Timer(1000 / TARGET_FPS, e -> drawLatestFrame());
+        frameTimer.start();
     }
 
     /**
@@ -101,104 +137,93 @@ public class SimulatorView extends JFrame {
     }
 
     /**
-     * Define uma cor a ser usada para uma dada classe de objeto.
+     * Adiciona um botão ao lado do botão de passo (por exemplo, os controles
+     * do replay). Deve ser chamado na EDT.
      * 
-     * @param actorClass A classe do ator.
-     * @param color      A cor a ser usada.
+     * @param label    O texto do botão.
+     * @param listener O ouvinte de ação do botão.
+     * @return O botão criado.
      */
-    public void setColor(Class actorClass, Color color) {
-        colors.put(actorClass, color);
+    public JButton addControl(String label, ActionListener listener) {
+        JButton button = new JButton(label);
+        button.setFont(stepButton.getFont());
+        button.addActionListener(listener);
+        controls.add(button);
+        pack();
+        return button;
     }
 
     /**
-     * Retorna a cor a ser usada para uma dada classe de objeto.
+     * Define uma cor a ser usada para uma dada espécie.
      * 
-     * @param actorClass A classe do objeto.
-     * @return A cor definida ou a cor desconhecida padrão.
+     * @param species A espécie.
+     * @param color   A cor a ser usada.
+     */
+    public void setColor(Species species, Color color) {
+        palette[species.ordinal()] = color.getRGB();
+    }
+
+    /**
+     * Desenha o quadro mais recente, se a simulação publicou um novo desde o
+     * último desenho. Chamado pelo temporizador na EDT.
      */
-    private Color getColor(Class actorClass) {
-        Color col = (Color) colors.get(actorClass);
-        if (col == null) {
-            // nenhuma cor definida para esta classe
-            return UNKNOWN_COLOR;
-        } else {
-            return col;
+    private void drawLatestFrame() {
+        FieldSnapshot frame = frames.takeLatest();
+        if (frame != null) {
+            showStatus(frame);
         }
     }
 
     /**
-     * Mostra o estado atual do campo.
+     * Mostra um quadro do campo.
      * 
-     * @param step          Qual é o passo da iteração.
-     * @param field         O campo a ser representado.
-     * @param currentSeason A estação atual da simulação.
+     * @param frame O quadro a ser representado.
      */
-    public void showStatus(int step, Field field, String currentSeason) {
-        if (!isVisible())
-            setVisible(true);
-
-        stepLabel.setText(STEP_PREFIX + step);
-
-        stats.reset();
-        fieldView.preparePaint();
-
-        for (int row = 0; row < field.getDepth(); row++) {
-            for (int col = 0; col < field.getWidth(); col++) {
-                Object object = field.getObjectAt(row, col);
-                if (object != null) {
-                    stats.incrementCount(object.getClass());
-
-                    Color color;
-
-                    // Lógica para mudar a cor da árvore dependendo da estação
-                    if (object instanceof Tree && currentSeason != null) {
-                        color = getTreeColorForSeason(currentSeason);
-                    } else {
-                        color = getColor(object.getClass());
-                    }
-
-                    fieldView.drawMark(col, row, color);
-                } else {
-                    fieldView.drawMark(col, row, EMPTY_COLOR);
-                }
-            }
+    private void showStatus(FieldSnapshot frame) {
+        stepLabel.setText(STEP_PREFIX + frame.getStep());
+
+        // Cor de cada código de célula; a das árvores depende da estação.
+        int[] colors = new int[SPECIES.length + 1];
+        colors[FieldSnapshot.EMPTY] = EMPTY_COLOR.getRGB();
+        for (int i = 0; i < SPECIES.length; i++) {
+            colors[i + 1] = palette[i];
         }
-        stats.countFinished();
+        colors[Species.TREE.ordinal() + 1] = getTreeColorForSeason(frame.getSeason());
 
+        byte[] cells = frame.getCells();
+        int[] pixels = fieldView.getPixels();
+        for (int i = 0; i < cells.length; i++) {
+            pixels[i] = colors[cells[i]];
+        }
+
+        String season = frame.getSeason();
         population.setText(
-                POPULATION_PREFIX + stats.getPopulationDetails(field)
-                        + "  Season: " + (currentSeason != null ? currentSeason : ""));
+                POPULATION_PREFIX + frame.getPopulationDetails()
+                        + "  Season: " + (season != null ? season : ""));
         fieldView.repaint();
     }
 
     /**
      * Retorna a cor da árvore baseada na estação do ano atual.
      */
-    private Color getTreeColorForSeason(String season) {
+    private int getTreeColorForSeason(String season) {
+        if (season == null) {
+            return palette[Species.TREE.ordinal()];
+        }
         switch (season) {
             case "spring":
-                return Color.green; // Verde claro
+                return TREE_SEASON_COLORS[0];
             case "summer":
-                return new Color(0, 200, 55); // Verde escuro
+                return TREE_SEASON_COLORS[1];
             case "autumn":
-                return Color.red; // vermelho
+                return TREE_SEASON_COLORS[2];
             case "winter":
-                return new Color(136, 70, 20); // Marrom
+                return TREE_SEASON_COLORS[3];
             default:
-                return getColor(Tree.class); // Cor padrão
+                return palette[Species.TREE.ordinal()]; // Cor padrão
         }
     }
 
-    /**
-     * Determina se a simulação deve continuar rodando.
-     * 
-     * @param field O campo atual.
-     * @return true Se houver mais de uma espécie viva.
-     */
-    public boolean isViable(Field field) {
-        return stats.isViable(field);
-    }
-
     /**
      * Fornece uma visualização gráfica de um campo retangular. Esta é
      * uma classe aninhada (uma classe definida dentro de uma classe) que
@@ -208,13 +233,15 @@ public class SimulatorView extends JFrame {
      * para o seu projeto se quiser.
      */
     private class FieldView extends JPanel {
+        private static final long serialVersionUID = 1L;
+
         private final int GRID_VIEW_SCALING_FACTOR = 8;
 
         private int gridWidth, gridHeight;
-        private int xScale, yScale;
-        Dimension size;
-        private Graphics g;
-        private Image fieldImage;
+        /** Imagem com um pixel por célula do campo. */
+        private BufferedImage fieldImage;
+        /** Os pixels de fieldImage (RGB), indexados por linha * largura + coluna. */
+        private int[] pixels;
 
         /**
          * Cria um novo componente FieldView.
@@ -222,7 +249,8 @@ public class SimulatorView extends JFrame {
         public FieldView(int height, int width) {
             gridHeight = height;
             gridWidth = width;
-            size = new Dimension(0, 0);
+            fieldImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            pixels = ((DataBufferInt) fieldImage.getRaster().getDataBuffer()).getData();
         }
 
         /**
@@ -234,42 +262,20 @@ public class SimulatorView extends JFrame {
         }
 
         /**
-         * Prepara para uma nova rodada de pintura. Como o componente
-         * pode ser redimensionado, calcula o fator de escala novamente.
-         */
-        public void preparePaint() {
-            if (!size.equals(getSize())) { // if the size has changed...
-                size = getSize();
-                fieldImage = fieldView.createImage(size.width, size.height);
-                g = fieldImage.getGraphics();
-
-                xScale = size.width / gridWidth;
-                if (xScale < 1) {
-                    xScale = GRID_VIEW_SCALING_FACTOR;
-                }
-                yScale = size.height / gridHeight;
-                if (yScale < 1) {
-                    yScale = GRID_VIEW_SCALING_FACTOR;
-                }
-            }
-        }
-
-        /**
-         * Pinta uma localização da grade neste campo com uma cor dada.
+         * @return Os pixels da imagem do campo, para serem escritos
+         *         diretamente.
          */
-        public void drawMark(int x, int y, Color color) {
-            g.setColor(color);
-            g.fillRect(x * xScale, y * yScale, xScale - 1, yScale - 1);
+        public int[] getPixels() {
+            return pixels;
         }
 
         /**
-         * O componente de visualização de campo precisa ser reexibido. Copia a
-         * imagem interna para a tela.
+         * O componente de visualização de campo precisa ser reexibido. Amplia a
+         * imagem interna (um pixel por célula) para o tamanho do componente.
          */
         public void paintComponent(Graphics g) {
-            if (fieldImage != null) {
-                g.drawImage(fieldImage, 0, 0, null);
-            }
+            super.paintComponent(g);
+            g.drawImage(fieldImage, 0, 0, getWidth(), getHeight(), null);
         }
     }
 }
@@ -0,0 +1,43 @@
+/**
+ * As espécies (tipos de participante) da simulação. A ordem das constantes é
+ * usada como código numérico em tabelas indexadas por espécie.
+ * 
+ * @author GRUPO 05
+ * @version 2025
+ */
+public enum Species {
+    FOX("Fox", true),
+    RABBIT("Rabbit", true),
+    HUNTER("Hunter", true),
+    TREE("Tree", false),
+    STONE("Stone", false);
+
+    /** O nome exibido para a espécie. */
+    private final String displayName;
+    /** Se a espécie é de animais (nasce, se move e morre). */
+    private final boolean animal;
+
+    /**
+     * @param displayName O nome exibido para a espécie.
+     * @param animal      Se a espécie é de animais.
+     */
+    Species(String displayName, boolean animal) {
+        this.displayName = displayName;
+        this.animal = animal;
+    }
+
+    /**
+     * @return Se a espécie é de animais (raposas, coelhos, caçadores), e não
+     *         de objetos fixos como árvores e pedras.
+     */
+    public boolean isAnimal() {
+        return animal;
+    }
+
+    /**
+     * @return O nome exibido para a espécie.
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -0,0 +1,170 @@
+import java.util.Arrays;
+
+/**
+ * Detecta quando continuar uma simulação não traz mais informação, para
+ * encerrá-la cedo (veja Simulator.simulate e StopReason).
+ *
+ * Disposição repetida: o hash do campo (Field.getHash) é comparado com os
+ * dos últimos CYCLE_HISTORY passos; se repetir, a espécie em cada célula
+ * voltou à de k passos antes (período k). O hash não cobre o estado dos
+ * atores (idade, comida, energia, gerador aleatório), então isso indica um
+ * provável ciclo, e não um ciclo exato; por isso a detecção vem desligada.
+ * Estado estacionário: para cada espécie de animais, mantém a reta de
+ * tendência (mínimos quadrados) da população nos últimos
+ * STEADY_STATE_WINDOW passos, com somas deslizantes atualizadas em O(1)
+ * por passo. A simulação é estável quando a variação prevista pela reta ao
+ * longo da janela fica abaixo de STEADY_STATE_TOLERANCE vezes a média de
+ * cada população.
+ *
+ * @author GRUPO 05
+ * @version 2025
+ */
+public class SteadyStateDetector {
+    /** As espécies, na ordem dos índices das janelas. */
+    private static final Species[] SPECIES = Species.values();
+
+    /** Hashes dos últimos passos (fila circular). */
+    private final long[] hashes;
+    /** Quantos hashes estão guardados e onde entra o próximo. */
+    private int hashCount, nextHash;
+    /** O período do último ciclo detectado (0 se nenhum). */
+    private int cyclePeriod;
+
+    /** Tamanho da janela de tendência (0 desliga). */
+    private final int window;
+    /** Variação relativa máxima para considerar uma população estável. */
+    private final double tolerance;
+    /** A população de cada espécie nos últimos passos (filas circulares). */
+    private final int[][] populations;
+    /** Somas de y e de i * y (i = posição na janela, 0 = mais antigo). */
+    private final long[] sums, weightedSums;
+    /** Quantos passos estão na janela e onde entra o próximo. */
+    private int samples, next;
+
+    /**
+     * Cria um detector com os limites de uma configuração.
+     *
+     * @param config Os parâmetros da simulação (CYCLE_HISTORY,
+     *               STEADY_STATE_WINDOW e STEADY_STATE_TOLERANCE).
+     */
+    public SteadyStateDetector(SimulationConfig config) {
+        hashes = new long[config.getInt(SimulationParameter.CYCLE_HISTORY)];
+        window = config.getInt(SimulationParameter.STEADY_STATE_WINDOW);
+        tolerance = config.get(SimulationParameter.STEADY_STATE_TOLERANCE);
+        populations = new int[SPECIES.length][window];
+        sums = new long[SPECIES.length];
+        weightedSums = new long[SPECIES.length];
+    }
+
+    /**
+     * Esquece os passos anteriores (por exemplo, ao reiniciar a simulação).
+     */
+    public void reset() {
+        hashCount = 0;
+        nextHash = 0;
+        cyclePeriod = 0;
+        samples = 0;
+        next = 0;
+        Arrays.fill(sums, 0);
+        Arrays.fill(weightedSums, 0);
+    }
+
+    /**
+     * Registra o estado de um passo e verifica se a simulação entrou em um
+     * ciclo ou em estado estacionário.
+     *
+     * @param hash  O hash do campo (Field.getHash).
+     * @param stats As contagens da população.
+     * @return CYCLE, STEADY_STATE, ou null se nenhum dos dois.
+     */
+    public StopReason update(long hash, FieldStats stats) {
+        boolean cycle = recordHash(hash);
+        boolean steady = recordPopulations(stats);
+        if (cycle) {
+            return StopReason.CYCLE;
+        }
+        return steady ? StopReason.STEADY_STATE : null;
+    }
+
+    /**
+     * @return O período do último ciclo detectado, em passos (0 se nenhum).
+     */
+    public int getCyclePeriod() {
+        return cyclePeriod;
+    }
+
+    /**
+     * Procura o hash entre os recentes e o guarda.
+     *
+     * @return Se ele já estava entre os recentes.
+     */
+    private boolean recordHash(long hash) {
+        if (hashes.length == 0) {
+            return false;
+        }
+        boolean found = false;
+        for (int age = 1; age <= hashCount; age++) {
+            int index = Math.floorMod(nextHash - age, hashes.length);
+            if (hashes[index] == hash) {
+                cyclePeriod = age;
+                found = true;
+                break;
+            }
+        }
+        hashes[nextHash] = hash;
+        nextHash = (nextHash + 1) % hashes.length;
+        hashCount = Math.min(hashCount + 1, hashes.length);
+        return found;
+    }
+
+    /**
+     * Acrescenta as populações à janela e testa a tendência de cada uma.
+     *
+     * @return Se todas as populações de animais estão estáveis.
+     */
+    private boolean recordPopulations(FieldStats stats) {
+        if (window < 2) {
+            return false;
+        }
+        boolean full = samples == window;
+        for (Species species : SPECIES) {
+            if (!species.isAnimal()) {
+                continue;
+            }
+            int s = species.ordinal();
+            long y = stats.getCount(species);
+            if (full) {
+                // A janela desliza: o mais antigo sai e os demais descem uma posição.
+                long oldest = populations[s][next];
+                weightedSums[s] += -(sums[s] - oldest) + (long) (window - 1) * y;
+                sums[s] += y - oldest;
+            } else {
+                weightedSums[s] += (long) samples * y;
+                sums[s] += y;
+            }
+            populations[s][next] = (int) y;
+        }
+        next = (next + 1) % window;
+        if (!full && ++samples < window) {
+            return false;
+        }
+
+        // Inclinação da reta de mínimos quadrados com x = 0 .. window - 1.
+        double n = window;
+        double sumX = n * (n - 1) / 2;
+        double sumXX = (n - 1) * n * (2 * n - 1) / 6;
+        double denominator = n * sumXX - sumX * sumX;
+        for (Species species : SPECIES) {
+            if (!species.isAnimal()) {
+                continue;
+            }
+            int s = species.ordinal();
+            double mean = sums[s] / n;
+            double slope = (n * weightedSums[s] - sumX * sums[s]) / denominator;
+            if (Math.abs(slope) * (n - 1) > tolerance * Math.max(mean, 1)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,80 @@
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Evento do JDK Flight Recorder com o tempo de cada fase de um passo da
+ * simulação (veja StepProfiler). Só é gravado quando há uma gravação JFR
+ * com o evento "ppoo.Step" habilitado, por exemplo com
+ * -XX:StartFlightRecording.
+ *
+ * @author GRUPO 05
+ * @version 2025
+ */
+@Name("ppoo.Step")
+@Label("Simulation Step")
+@Category("Simulation")
+@Description("Tempo de cada fase de um passo da simulação")
+@StackTrace(false)
+class StepEvent extends jdk.jfr.Event {
+    @Label("Step")
+    int step;
+
+    @Label("Actors")
+    int actors;
+
+    @Label("Flow Fields")
+    @Timespan(Timespan.NANOSECONDS)
+    long flow;
+
+    @Label("Act")
+    @Timespan(Timespan.NANOSECONDS)
+    long act;
+
+    @Label("Act (Fox)")
+    @Description("Parte estimada de act gasta com raposas")
+    @Timespan(Timespan.NANOSECONDS)
+    long actFox;
+
+    @Label("Act (Rabbit)")
+    @Description("Parte estimada de act gasta com coelhos")
+    @Timespan(Timespan.NANOSECONDS)
+    long actRabbit;
+
+    @Label("Act (Hunter)")
+    @Description("Parte estimada de act gasta com caçadores")
+    @Timespan(Timespan.NANOSECONDS)
+    long actHunter;
+
+    @Label("Remove Dead")
+    @Timespan(Timespan.NANOSECONDS)
+    long removeDead;
+
+    @Label("Births")
+    @Timespan(Timespan.NANOSECONDS)
+    long births;
+
+    @Label("Swap")
+    @Timespan(Timespan.NANOSECONDS)
+    long swap;
+
+    @Label("Detect")
+    @Timespan(Timespan.NANOSECONDS)
+    long detect;
+
+    @Label("Metrics")
+    @Timespan(Timespan.NANOSECONDS)
+    long metrics;
+
+    @Label("Render")
+    @Timespan(Timespan.NANOSECONDS)
+    long render;
+
+    @Label("Allocated")
+    @DataAmount(DataAmount.BYTES)
+    long allocated;
+}
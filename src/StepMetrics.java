@@ -0,0 +1,91 @@
+import java.util.Arrays;
+
+/**
+ * As métricas de um passo da simulação: população, nascimentos e mortes por
+ * espécie (e por causa), estoque de frutos e estação. O simulador reutiliza
+ * a mesma instância a cada passo, então quem a recebe deve copiar o que
+ * quiser guardar.
+ * 
+ * @author GRUPO 05
+ * @version 2025
+ */
+public class StepMetrics {
+    /** As espécies, na ordem dos índices das tabelas. */
+    static final Species[] SPECIES = Species.values();
+    /** As causas de morte, na ordem dos índices das tabelas. */
+    static final DeathCause[] CAUSES = DeathCause.values();
+
+    /** O passo ao qual as métricas se referem. */
+    private int step;
+    /** A estação (0 = primavera, 1 = verão, 2 = outono, 3 = inverno). */
+    private int season;
+    /** População de cada espécie ao fim do passo. */
+    private final int[] population = new int[SPECIES.length];
+    /** Nascimentos de cada espécie durante o passo. */
+    private final int[] births = new int[SPECIES.length];
+    /** Mortes durante o passo, indexadas por espécie * CAUSES.length + causa. */
+    private final int[] deaths = new int[SPECIES.length * CAUSES.length];
+    /** Total de frutos nas árvores ao fim do passo. */
+    private int fruitStock;
+
+    /**
+     * Zera os nascimentos, as mortes e o estoque de frutos para um novo passo.
+     * 
+     * @param step O passo que começa.
+     */
+    void begin(int step) {
+        this.step = step;
+        Arrays.fill(births, 0);
+        Arrays.fill(deaths, 0);
+        fruitStock = 0;
+    }
+
+    void recordBirth(Species species) {
+        births[species.ordinal()]++;
+    }
+
+    void recordDeath(Species species, DeathCause cause) {
+        if (cause == null) {
+            throw new IllegalArgumentException("Morte sem causa: " + species.getDisplayName());
+        }
+        deaths[species.ordinal() * CAUSES.length + cause.ordinal()]++;
+    }
+
+    void addFruit(int fruits) {
+        fruitStock += fruits;
+    }
+
+    /**
+     * Copia as populações e a estação ao fim do passo.
+     */
+    void finish(FieldStats stats, int season) {
+        for (Species species : SPECIES) {
+            population[species.ordinal()] = stats.getCount(species);
+        }
+        this.season = season;
+    }
+
+    public int getStep() {
+        return step;
+    }
+
+    public int getSeason() {
+        return season;
+    }
+
+    public int getPopulation(Species species) {
+        return population[species.ordinal()];
+    }
+
+    public int getBirths(Species species) {
+        return births[species.ordinal()];
+    }
+
+    public int getDeaths(Species species, DeathCause cause) {
+        return deaths[species.ordinal() * CAUSES.length + cause.ordinal()];
+    }
+
+    public int getFruitStock() {
+        return fruitStock;
+    }
+}
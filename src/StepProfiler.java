@@ -0,0 +1,333 @@
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Mede onde um passo da simulação gasta o seu tempo (veja
+ * Simulator.setProfiler). O simulador marca o fim de cada fase (Phase), e
+ * cada passo vira um evento JFR (StepEvent) e uma amostra em um histograma
+ * de latência. A cada intervalo o perfilador envia um resumo da janela
+ * (passos/s, p50 e p99 da duração do passo, bytes alocados por passo e a
+ * parte de cada fase) e recomeça a janela.
+ *
+ * Para custar pouco, só o início e o fim de cada fase são cronometrados,
+ * mais um de cada ACT_SAMPLE atores: o tempo de act de cada espécie é a
+ * parte de ACT proporcional ao tempo das amostras daquela espécie. No modo
+ * paralelo as amostras são escolhidas em cada ladrilho e somadas ao fim das
+ * fases (veja ParallelStepper). As
+ * alocações são as da thread que chama simulateOneStep (no modo paralelo
+ * as das threads de trabalho não entram), e -1 se a JVM não as medir.
+ *
+ * @author GRUPO 05
+ * @version 2025
+ */
+public class StepProfiler {
+    /** As fases de um passo, na ordem em que acontecem. */
+    public enum Phase {
+        /** Os mapas de distância até as presas (veja FlowFields). */
+        FLOW,
+        /** Os atores agem. */
+        ACT,
+        /** Os mortos saem da lista de atores. */
+        REMOVE_DEAD,
+        /** Os recém-nascidos entram na lista e nas contagens. */
+        BIRTHS,
+        /** Troca e limpeza dos campos. */
+        SWAP,
+        /** Estação, hash do campo e detector de parada. */
+        DETECT,
+        /** Métricas do passo. */
+        METRICS,
+        /** Replay e quadro da visualização. */
+        RENDER
+    }
+
+    /** As fases, na ordem dos índices. */
+    private static final Phase[] PHASES = Phase.values();
+    /** As espécies, na ordem dos índices. */
+    private static final Species[] SPECIES = Species.values();
+    /** Um de cada ACT_SAMPLE atores tem o seu act cronometrado (potência de 2). */
+    public static final int ACT_SAMPLE = 64;
+    /** Subdivisões de cada potência de 2 no histograma (2^SUB_BITS). */
+    private static final int SUB_BITS = 3;
+    /** Quantidade de baldes do histograma. */
+    private static final int BUCKETS = 64 << SUB_BITS;
+
+    /** Mede as alocações da thread atual (null se a JVM não permitir). */
+    private final com.sun.management.ThreadMXBean threads;
+    /** Recebe o resumo de cada janela (null para nunca enviar). */
+    private final Consumer<String> report;
+    /** Duração de cada janela, em nanossegundos. */
+    private final long intervalNanos;
+
+    /** Quando a fase atual começou. */
+    private long phaseStart;
+    /** Quando o passo atual começou. */
+    private long stepStart;
+    /** Alocações da thread no início do passo. */
+    private long allocatedStart;
+    /** Tempo de cada fase no passo atual. */
+    private final long[] phaseNanos = new long[PHASES.length];
+    /** Tempo das amostras de act de cada espécie no passo atual. */
+    private final long[] sampleNanos = new long[SPECIES.length];
+    /** Conta os atores para escolher as amostras. */
+    private int actorCounter;
+    /** O evento JFR do passo atual. */
+    private StepEvent event;
+
+    /** Início da janela atual. */
+    private long windowStart;
+    /** Passos na janela atual. */
+    private int windowSteps;
+    /** Tempo de cada fase na janela atual. */
+    private final long[] windowPhaseNanos = new long[PHASES.length];
+    /** Tempo estimado de act de cada espécie na janela atual. */
+    private final long[] windowActNanos = new long[SPECIES.length];
+    /** Bytes alocados na janela atual. */
+    private long windowAllocated;
+    /** Histograma da duração dos passos da janela (baldes log-lineares). */
+    private final long[] histogram = new long[BUCKETS];
+    /** O último passo medido. */
+    private int lastStep;
+
+    /**
+     * Cria um perfilador sem resumos periódicos: a janela cobre todos os
+     * passos medidos (veja getSummary e percentile).
+     */
+    public StepProfiler() {
+        this(null, 0);
+    }
+
+    /**
+     * Cria um perfilador.
+     *
+     * @param report         Recebe o resumo de cada janela (por exemplo,
+     *                       System.out::println).
+     * @param intervalMillis A duração de cada janela, em milissegundos.
+     */
+    public StepProfiler(Consumer<String> report, long intervalMillis) {
+        this.report = report;
+        this.intervalNanos = intervalMillis * 1_000_000;
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+            threads = (com.sun.management.ThreadMXBean) bean;
+            threads.setThreadAllocatedMemoryEnabled(true);
+        } else {
+            threads = null;
+        }
+        windowStart = System.nanoTime();
+    }
+
+    /**
+     * Marca o início de um passo (e da sua primeira fase).
+     *
+     * @param step O passo que começa.
+     */
+    void beginStep(int step) {
+        lastStep = step;
+        Arrays.fill(phaseNanos, 0);
+        Arrays.fill(sampleNanos, 0);
+        event = new StepEvent();
+        event.begin();
+        allocatedStart = allocatedBytes();
+        stepStart = System.nanoTime();
+        phaseStart = stepStart;
+    }
+
+    /**
+     * Marca o fim de uma fase; a próxima começa agora.
+     *
+     * @param phase A fase que terminou.
+     */
+    void endPhase(Phase phase) {
+        long now = System.nanoTime();
+        phaseNanos[phase.ordinal()] += now - phaseStart;
+        phaseStart = now;
+    }
+
+    /**
+     * @return Se o act do próximo ator deve ser cronometrado.
+     */
+    boolean sampleNextActor() {
+        return (actorCounter++ & (ACT_SAMPLE - 1)) == 0;
+    }
+
+    /**
+     * Registra o tempo de act de um ator escolhido por sampleNextActor.
+     *
+     * @param species A espécie do ator.
+     * @param nanos   O tempo do act.
+     */
+    void addActorSample(Species species, long nanos) {
+        sampleNanos[species.ordinal()] += nanos;
+    }
+
+    /**
+     * Marca o fim de um passo: grava o evento JFR, acrescenta o passo à
+     * janela e, se a janela acabou, envia o resumo.
+     *
+     * @param actors O número de atores ao fim do passo.
+     */
+    void endStep(int actors) {
+        long now = System.nanoTime();
+        event.end();
+        long allocated = allocatedStart < 0 ? -1 : allocatedBytes() - allocatedStart;
+        long duration = now - stepStart;
+
+        long sampled = 0;
+        for (long nanos : sampleNanos) {
+            sampled += nanos;
+        }
+        long act = phaseNanos[Phase.ACT.ordinal()];
+        for (Species species : SPECIES) {
+            windowActNanos[species.ordinal()] += share(act, species, sampled);
+        }
+
+        if (event.shouldCommit()) {
+            event.step = lastStep;
+            event.actors = actors;
+            event.flow = phaseNanos[Phase.FLOW.ordinal()];
+            event.act = act;
+            event.actFox = share(act, Species.FOX, sampled);
+            event.actRabbit = share(act, Species.RABBIT, sampled);
+            event.actHunter = share(act, Species.HUNTER, sampled);
+            event.removeDead = phaseNanos[Phase.REMOVE_DEAD.ordinal()];
+            event.births = phaseNanos[Phase.BIRTHS.ordinal()];
+            event.swap = phaseNanos[Phase.SWAP.ordinal()];
+            event.detect = phaseNanos[Phase.DETECT.ordinal()];
+            event.metrics = phaseNanos[Phase.METRICS.ordinal()];
+            event.render = phaseNanos[Phase.RENDER.ordinal()];
+            event.allocated = allocated;
+            event.commit();
+        }
+        event = null;
+
+        windowSteps++;
+        histogram[bucketOf(duration)]++;
+        for (int p = 0; p < PHASES.length; p++) {
+            windowPhaseNanos[p] += phaseNanos[p];
+        }
+        windowAllocated += Math.max(allocated, 0);
+        if (report != null && now - windowStart >= intervalNanos) {
+            report.accept(getSummary());
+            resetWindow();
+        }
+    }
+
+    /**
+     * @return O resumo da janela atual: passos/s, p50 e p99 da duração do
+     *         passo, bytes alocados por passo e a parte do tempo de cada
+     *         fase (e de cada espécie em ACT).
+     */
+    public String getSummary() {
+        if (windowSteps == 0) {
+            return "Passo " + lastStep + ": nenhum passo medido";
+        }
+        double seconds = (System.nanoTime() - windowStart) / 1e9;
+        long total = 0;
+        for (long nanos : windowPhaseNanos) {
+            total += nanos;
+        }
+        StringBuilder summary = new StringBuilder();
+        summary.append("Passo ").append(lastStep).append(": ")
+                .append(String.format(Locale.ROOT, "%.1f passos/s, p50 %.3f ms, p99 %.3f ms",
+                        windowSteps / seconds, percentile(0.50) / 1e6, percentile(0.99) / 1e6));
+        if (threads != null) {
+            summary.append(String.format(Locale.ROOT, ", %.1f KB/passo", windowAllocated / 1024.0 / windowSteps));
+        }
+        summary.append(" |");
+        for (Phase phase : PHASES) {
+            summary.append(' ').append(phase.name().toLowerCase(Locale.ROOT)).append(' ')
+                    .append(percent(windowPhaseNanos[phase.ordinal()], total));
+            if (phase == Phase.ACT) {
+                summary.append(" (");
+                String separator = "";
+                for (Species species : SPECIES) {
+                    if (species.isAnimal()) {
+                        summary.append(separator).append(species.getDisplayName()).append(' ')
+                                .append(percent(windowActNanos[species.ordinal()], total));
+                        separator = ", ";
+                    }
+                }
+                summary.append(')');
+            }
+        }
+        return summary.toString();
+    }
+
+    /**
+     * Recomeça a janela de medição.
+     */
+    public void resetWindow() {
+        windowStart = System.nanoTime();
+        windowSteps = 0;
+        windowAllocated = 0;
+        Arrays.fill(windowPhaseNanos, 0);
+        Arrays.fill(windowActNanos, 0);
+        Arrays.fill(histogram, 0);
+    }
+
+    /**
+     * Estima a duração de passo abaixo da qual fica uma fração dos passos
+     * da janela (pelo meio do balde do histograma).
+     *
+     * @param fraction A fração (0.5 = mediana).
+     * @return A duração, em nanossegundos.
+     */
+    public double percentile(double fraction) {
+        long target = (long) Math.ceil(fraction * windowSteps);
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += histogram[bucket];
+            if (seen >= Math.max(target, 1)) {
+                return (lowerBound(bucket) + lowerBound(bucket + 1)) / 2.0;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return Os bytes alocados pela thread atual até agora, ou -1.
+     */
+    private long allocatedBytes() {
+        return threads == null ? -1 : threads.getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * A parte de act atribuída a uma espécie pelas amostras do passo.
+     */
+    private long share(long act, Species species, long sampled) {
+        return sampled == 0 ? 0 : Math.round((double) act * sampleNanos[species.ordinal()] / sampled);
+    }
+
+    private static String percent(long part, long total) {
+        return total == 0 ? "0%" : Math.round(100.0 * part / total) + "%";
+    }
+
+    /**
+     * Balde de uma duração: a potência de 2 e os SUB_BITS bits seguintes.
+     */
+    private static int bucketOf(long nanos) {
+        if (nanos < (1L << SUB_BITS)) {
+            return (int) Math.max(nanos, 0);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        int sub = (int) (nanos >>> (exponent - SUB_BITS)) & ((1 << SUB_BITS) - 1);
+        return Math.min(((exponent - SUB_BITS + 1) << SUB_BITS) + sub, BUCKETS - 1);
+    }
+
+    /**
+     * A menor duração que cai em um balde (inverso de bucketOf).
+     */
+    private static double lowerBound(int bucket) {
+        if (bucket < (1 << SUB_BITS)) {
+            return bucket;
+        }
+        int exponent = (bucket >>> SUB_BITS) + SUB_BITS - 1;
+        int sub = bucket & ((1 << SUB_BITS) - 1);
+        return Math.scalb(1.0 + sub / (double) (1 << SUB_BITS), exponent);
+    }
+}
@@ -0,0 +1,492 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Decide quando cada passo de uma simulação roda: sem limite, a uma taxa
+ * fixa ou dentro de um orçamento de tempo por quadro (veja Mode). Também
+ * atende, entre dois passos, os pedidos de outras threads: pausa,
+ * continuação, passo único e checkpoint.
+ *
+ * run executa os passos na thread que o chama (Simulator.simulate); start
+ * executa em uma thread própria, para que a thread principal e a EDT nunca
+ * fiquem presas no laço da simulação. Só uma execução roda de cada vez.
+ *
+ * @author GRUPO 05
+ * @version 2025
+ */
+public class StepScheduler {
+    /** Como os passos são distribuídos no tempo. */
+    public enum Mode {
+        /** Um passo logo após o outro. */
+        UNTHROTTLED,
+        /**
+         * Um passo a cada 1 / taxa segundos, medidos desde o início da
+         * execução, para que atrasos de um passo não se acumulem. Depois de
+         * um atraso maior que MAX_LAG_STEPS passos o relógio recomeça, em
+         * vez de rodar a diferença de uma vez.
+         */
+        FIXED_RATE,
+        /**
+         * Em cada quadro da visualização (1 / SimulatorView.TARGET_FPS
+         * segundos), roda passos até gastar o orçamento e espera o resto do
+         * quadro.
+         */
+        TIME_BUDGET
+    }
+
+    /** Atraso máximo, em passos, que o modo FIXED_RATE tenta recuperar. */
+    public static final int MAX_LAG_STEPS = 4;
+    /** A duração de um quadro no modo TIME_BUDGET. */
+    private static final long FRAME_NANOS = 1_000_000_000L / SimulatorView.TARGET_FPS;
+
+    /** A simulação controlada. */
+    private final Simulator simulator;
+
+    /** O modo atual. */
+    private volatile Mode mode = Mode.UNTHROTTLED;
+    /** O intervalo entre passos (FIXED_RATE) ou o orçamento por quadro (TIME_BUDGET). */
+    private volatile long nanos;
+    /** Se o modo mudou e o relógio do ritmo deve recomeçar. */
+    private volatile boolean rescheduled;
+
+    /**
+     * Protege o estado de controle abaixo, alterado por outras threads, e
+     * é notificado quando ele muda.
+     */
+    private final Object control = new Object();
+    /** Se a simulação deve esperar antes do próximo passo. */
+    private boolean paused;
+    /** Passos únicos pedidos durante a pausa. */
+    private int singleSteps;
+    /**
+     * A thread dona da execução em andamento (ou de um checkpoint gravado
+     * sem execução), ou null. start a reserva antes de criar a thread, para
+     * que duas chamadas seguidas nunca criem duas execuções.
+     */
+    private Thread owner;
+    /** Checkpoints pedidos por outras threads, gravados entre dois passos. */
+    private final List<CheckpointRequest> checkpointRequests = new ArrayList<>();
+
+    /** Quando o próximo passo deve começar (FIXED_RATE). */
+    private long nextStep;
+    /** Quando o quadro atual começou (TIME_BUDGET). */
+    private long frameStart;
+
+    /** Um checkpoint pedido por outra thread. */
+    private static class CheckpointRequest {
+        final Path file;
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        CheckpointRequest(Path file) {
+            this.file = file;
+        }
+    }
+
+    /**
+     * Cria o escalonador de uma simulação, sem limite de velocidade.
+     *
+     * @param simulator A simulação.
+     */
+    StepScheduler(Simulator simulator) {
+        this.simulator = simulator;
+    }
+
+    /**
+     * Roda os passos um logo após o outro.
+     */
+    public void setUnthrottled() {
+        setMode(Mode.UNTHROTTLED, 0);
+    }
+
+    /**
+     * Roda os passos a uma taxa fixa.
+     *
+     * @param stepsPerSecond Passos por segundo (positivo).
+     */
+    public void setFixedRate(double stepsPerSecond) {
+        if (!(stepsPerSecond > 0)) {
+            throw new IllegalArgumentException("invalid step rate: " + stepsPerSecond);
+        }
+        setMode(Mode.FIXED_RATE, Math.max((long) (1e9 / stepsPerSecond), 1));
+    }
+
+    /**
+     * Roda passos só durante parte de cada quadro da visualização.
+     *
+     * @param millisPerFrame O tempo de simulação por quadro, em ms (limitado
+     *                       à duração do quadro).
+     */
+    public void setTimeBudget(double millisPerFrame) {
+        if (!(millisPerFrame > 0)) {
+            throw new IllegalArgumentException("invalid time budget: " + millisPerFrame);
+        }
+        setMode(Mode.TIME_BUDGET, Math.min((long) (millisPerFrame * 1e6), FRAME_NANOS));
+    }
+
+    private void setMode(Mode mode, long nanos) {
+        this.nanos = nanos;
+        this.mode = mode;
+        rescheduled = true;
+    }
+
+    /**
+     * @return O modo atual.
+     */
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * @return A taxa alvo em passos por segundo no modo FIXED_RATE (0 nos
+     *         outros modos).
+     */
+    public double getTargetStepRate() {
+        return mode == Mode.FIXED_RATE ? 1e9 / nanos : 0;
+    }
+
+    /**
+     * Roda até numSteps passos na thread atual, parando antes se a
+     * simulação deixar de ser viável ou se a thread for interrompida. Ao
+     * parar, publica o último passo para a visualização, mesmo que ele
+     * tenha sido pulado.
+     *
+     * @param numSteps O número de passos.
+     * @return O motivo da parada.
+     * @throws IllegalStateException Se já houver uma execução em andamento.
+     */
+    StopReason run(int numSteps) {
+        synchronized (control) {
+            if (owner != null && owner != Thread.currentThread()) {
+                throw new IllegalStateException("A simulação já está em andamento");
+            }
+            owner = Thread.currentThread();
+        }
+        rescheduled = true;
+        boolean released = false;
+        try {
+            for (int step = 1;; step++) {
+                // O último quadro é publicado antes da liberação, enquanto
+                // nenhuma outra execução pode alterar o campo.
+                if (step > numSteps) {
+                    simulator.publishFrame(true);
+                    // Passos únicos pedidos até o fim da execução também rodam.
+                    if (release(true)) {
+                        released = true;
+                        return StopReason.STEP_LIMIT;
+                    }
+                }
+                StopReason reason = simulator.checkStop();
+                if (reason != null) {
+                    simulator.publishFrame(true);
+                    return reason;
+                }
+                Boolean single = awaitTurn();
+                if (single == null) {
+                    simulator.publishFrame(true);
+                    return StopReason.INTERRUPTED;
+                }
+                if (single) {
+                    simulator.simulateOneStep();
+                    simulator.publishFrame(true);
+                    rescheduled = true;
+                } else {
+                    pace();
+                    simulator.simulateOneStep();
+                }
+            }
+        } finally {
+            if (!released) {
+                release(false);
+            }
+        }
+    }
+
+    /**
+     * Grava os checkpoints pendentes e libera a simulação para outra
+     * execução. Os checkpoints são gravados fora do lock de control, mas
+     * antes da liberação, então nenhum passo roda durante a gravação.
+     *
+     * @param keepSingleSteps Se true, não libera enquanto houver passos
+     *                        únicos pedidos durante a pausa.
+     * @return Se a simulação foi liberada.
+     */
+    private boolean release(boolean keepSingleSteps) {
+        while (true) {
+            List<CheckpointRequest> requests;
+            synchronized (control) {
+                requests = takeCheckpointRequests();
+                if (requests.isEmpty()) {
+                    if (keepSingleSteps && paused && singleSteps > 0) {
+                        return false;
+                    }
+                    if (owner == Thread.currentThread()) {
+                        owner = null;
+                    }
+                    control.notifyAll();
+                    return true;
+                }
+            }
+            writeCheckpoints(requests);
+        }
+    }
+
+    /**
+     * Roda até numSteps passos em uma thread nova e retorna em seguida.
+     *
+     * @param numSteps O número de passos.
+     * @return A thread da execução.
+     * @throws IllegalStateException Se já houver uma execução em andamento.
+     */
+    public Thread start(int numSteps) {
+        synchronized (control) {
+            if (owner != null) {
+                throw new IllegalStateException("A simulação já está em andamento");
+            }
+            Thread thread = new Thread(() -> simulator.simulate(numSteps), "simulation");
+            owner = thread;
+            thread.start();
+            return thread;
+        }
+    }
+
+    /**
+     * Atende os checkpoints pedidos e espera enquanto a simulação estiver
+     * pausada, até um passo único ser pedido.
+     *
+     * @return Se o próximo passo é um passo único; null se a thread foi
+     *         interrompida.
+     */
+    private Boolean awaitTurn() {
+        while (true) {
+            List<CheckpointRequest> requests;
+            synchronized (control) {
+                requests = takeCheckpointRequests();
+                if (requests.isEmpty()) {
+                    if (!paused) {
+                        return false;
+                    }
+                    if (singleSteps > 0) {
+                        singleSteps--;
+                        return true;
+                    }
+                    try {
+                        control.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return null;
+                    }
+                    continue;
+                }
+            }
+            writeCheckpoints(requests);
+        }
+    }
+
+    /**
+     * Espera até a hora do próximo passo, conforme o modo.
+     */
+    private void pace() {
+        Mode mode = this.mode;
+        long interval = nanos;
+        long now = System.nanoTime();
+        if (rescheduled) {
+            rescheduled = false;
+            nextStep = now;
+            frameStart = now;
+        }
+        switch (mode) {
+            case FIXED_RATE:
+                if (now - nextStep > MAX_LAG_STEPS * interval) {
+                    nextStep = now;
+                }
+                parkUntil(nextStep);
+                nextStep += interval;
+                break;
+            case TIME_BUDGET:
+                if (now - frameStart >= interval) {
+                    long nextFrame = frameStart + FRAME_NANOS;
+                    parkUntil(nextFrame);
+                    frameStart = now - nextFrame > FRAME_NANOS ? System.nanoTime() : nextFrame;
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Espera até um instante de System.nanoTime (parkNanos pode acordar
+     * antes da hora).
+     */
+    private static void parkUntil(long deadline) {
+        long wait;
+        while ((wait = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(wait);
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Retira da fila os checkpoints pedidos por outras threads. Chamado com
+     * o lock de control.
+     */
+    private List<CheckpointRequest> takeCheckpointRequests() {
+        if (checkpointRequests.isEmpty()) {
+            return List.of();
+        }
+        List<CheckpointRequest> requests = new ArrayList<>(checkpointRequests);
+        checkpointRequests.clear();
+        return requests;
+    }
+
+    /**
+     * Grava checkpoints retirados da fila, entre dois passos e sem o lock de
+     * control, para que pausa e consultas não esperem pela escrita.
+     */
+    private void writeCheckpoints(List<CheckpointRequest> requests) {
+        for (CheckpointRequest request : requests) {
+            try {
+                simulator.saveCheckpoint(request.file, true);
+                request.done.complete(null);
+            } catch (IOException | RuntimeException e) {
+                request.done.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Grava um checkpoint comprimido a partir de qualquer thread. Se houver
+     * uma execução em andamento, a gravação acontece entre dois passos (ou
+     * durante a pausa) e este método espera por ela.
+     *
+     * @param file O arquivo (substituído se existir).
+     * @throws IOException Se a gravação falhar.
+     */
+    public void requestCheckpoint(Path file) throws IOException {
+        CheckpointRequest request = new CheckpointRequest(file);
+        boolean idle;
+        synchronized (control) {
+            idle = owner == null;
+            if (idle) {
+                // Sem execução: reserva a simulação e grava nesta thread.
+                owner = Thread.currentThread();
+            } else {
+                checkpointRequests.add(request);
+                control.notifyAll();
+            }
+        }
+        if (idle) {
+            try {
+                simulator.saveCheckpoint(file, true);
+            } finally {
+                release(false);
+                synchronized (control) {
+                    // Passos únicos pedidos durante a gravação.
+                    if (owner == null && paused && singleSteps > 0) {
+                        start(0);
+                    }
+                }
+            }
+            return;
+        }
+        try {
+            request.done.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrompido esperando o checkpoint", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Erro ao gravar o checkpoint", e.getCause());
+        }
+    }
+
+    /**
+     * Pausa a simulação antes do próximo passo. Pode ser chamado de
+     * qualquer thread.
+     */
+    public void pause() {
+        synchronized (control) {
+            paused = true;
+        }
+    }
+
+    /**
+     * Continua uma simulação pausada. Pode ser chamado de qualquer thread.
+     */
+    public void resume() {
+        synchronized (control) {
+            paused = false;
+            singleSteps = 0;
+            control.notifyAll();
+        }
+    }
+
+    /**
+     * @return Se a simulação está pausada.
+     */
+    public boolean isPaused() {
+        synchronized (control) {
+            return paused;
+        }
+    }
+
+    /**
+     * @return Se há uma execução em andamento (ou um checkpoint sendo
+     *         gravado sem execução).
+     */
+    public boolean isRunning() {
+        synchronized (control) {
+            return owner != null;
+        }
+    }
+
+    /**
+     * Avança exatamente um passo, a partir de qualquer thread (por exemplo,
+     * o botão de passo da visualização). Uma execução em andamento é
+     * pausada e avança um passo; sem execução, um passo roda em uma thread
+     * nova. O passo nunca roda na thread que chama.
+     */
+    public void step() {
+        synchronized (control) {
+            paused = true;
+            singleSteps++;
+            if (owner != null) {
+                control.notifyAll();
+            } else {
+                // Sem execução: roda só os passos únicos pedidos e termina
+                // pausada.
+                start(0);
+            }
+        }
+    }
+
+    /**
+     * Pausa a execução em andamento, ou a continua; sem execução, começa
+     * uma em uma thread nova. A decisão e a ação acontecem sob o mesmo
+     * lock, então cliques seguidos nunca criam duas execuções.
+     *
+     * @param numSteps O número de passos de uma execução nova.
+     */
+    public void togglePause(int numSteps) {
+        synchronized (control) {
+            if (owner == null) {
+                paused = false;
+                singleSteps = 0;
+                start(numSteps);
+            } else if (paused) {
+                resume();
+            } else {
+                paused = true;
+            }
+        }
+    }
+}
@@ -25,10 +25,17 @@ public class Stone implements Obstacles {
     /**
      * Retorna a localização da pedra.
      * 
-     * @return A localização atual da pedra.
+     * @return A localização atual da pedra, ou null para a pedra genérica dos
+     *         blocos totalmente cobertos de pedras (veja ChunkedFieldLayer),
+     *         que o campo devolve em várias células.
      */
     @Override
     public Location getLocation() {
         return location;
     }
+
+    @Override
+    public Species getSpecies() {
+        return Species.STONE;
+    }
 }
@@ -0,0 +1,25 @@
+/**
+ * Por que uma execução de Simulator.simulate terminou.
+ * 
+ * @author GRUPO 05
+ * @version 2025
+ */
+public enum StopReason {
+    /** Executou todos os passos pedidos. */
+    STEP_LIMIT,
+    /** Todos os animais morreram. */
+    EXTINCTION,
+    /** Restou uma única espécie de animais (veja FieldStats.isViable). */
+    NOT_VIABLE,
+    /**
+     * A disposição do campo (a espécie em cada célula) repetiu a de um passo
+     * recente. Idades, energia e geradores aleatórios não são comparados,
+     * então a execução não necessariamente se repete daí em diante (veja
+     * SteadyStateDetector).
+     */
+    CYCLE,
+    /** As populações pararam de variar, dentro da tolerância configurada. */
+    STEADY_STATE,
+    /** A thread da simulação foi interrompida (veja StepScheduler). */
+    INTERRUPTED
+}
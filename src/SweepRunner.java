@@ -0,0 +1,214 @@
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Varredura de parâmetros: roda muitas simulações headless independentes,
+ * uma para cada combinação dos valores escolhidos (veja addAxis) e cada
+ * repetição, em um número fixo de threads, e grava o resultado de cada uma
+ * em uma única saída CSV assim que ela termina.
+ *
+ * Cada execução tem o seu próprio Simulator e SimulationConfig, então elas
+ * não compartilham estado. A repetição r usa a semente base + r em todos os
+ * pontos, para que pontos diferentes sejam comparados com os mesmos números
+ * aleatórios. No máximo 2 * threads execuções ficam na fila ao mesmo tempo,
+ * então varreduras com milhares de pontos não ocupam memória com as
+ * simulações pendentes.
+ *
+ * @author GRUPO 05
+ * @version 2025
+ */
+public class SweepRunner {
+    /** As espécies, na ordem das colunas de população. */
+    private static final Species[] SPECIES = Species.values();
+
+    /** A configuração de partida, alterada em cada ponto. */
+    private final SimulationConfig base;
+    /** A profundidade e largura do campo de cada simulação. */
+    private final int depth, width;
+    /** Os parâmetros variados, na ordem das colunas. */
+    private final List<SimulationParameter> axes = new ArrayList<>();
+    /** Os valores de cada parâmetro variado. */
+    private final List<double[]> axisValues = new ArrayList<>();
+
+    /** O resultado de uma execução. */
+    private static class Result {
+        /** O número da execução e a sua semente. */
+        int run;
+        long seed;
+        /** A configuração usada. */
+        SimulationConfig config;
+        /** Os passos executados (menos que o pedido se houve extinção). */
+        int steps;
+        /** Por que a simulação terminou. */
+        StopReason stopReason;
+        /** A população final de cada espécie. */
+        int[] counts = new int[SPECIES.length];
+        /** A duração da execução, em milissegundos. */
+        long millis;
+        /** A mediana e o percentil 99 da duração dos passos, em milissegundos. */
+        double p50, p99;
+    }
+
+    /**
+     * Cria uma varredura sem parâmetros variados (só repetições).
+     *
+     * @param base  A configuração de partida.
+     * @param depth A profundidade do campo de cada simulação.
+     * @param width A largura do campo de cada simulação.
+     */
+    public SweepRunner(SimulationConfig base, int depth, int width) {
+        this.base = base;
+        this.depth = depth;
+        this.width = width;
+    }
+
+    /**
+     * Varia um parâmetro. Os pontos da varredura são todas as combinações
+     * dos valores de todos os parâmetros variados.
+     *
+     * @param parameter O parâmetro.
+     * @param values    Os valores (cada um validado por SimulationConfig).
+     */
+    public void addAxis(SimulationParameter parameter, double... values) {
+        if (values.length == 0) {
+            throw new IllegalArgumentException("no values for " + parameter);
+        }
+        for (double value : values) {
+            base.with(parameter, value);
+        }
+        axes.add(parameter);
+        axisValues.add(values.clone());
+    }
+
+    /**
+     * @return Quantos pontos (combinações de valores) a varredura tem.
+     */
+    public int getPointCount() {
+        int points = 1;
+        for (double[] values : axisValues) {
+            points = Math.multiplyExact(points, values.length);
+        }
+        return points;
+    }
+
+    /**
+     * Retorna a configuração de um ponto da varredura.
+     *
+     * @param point O número do ponto (0 a getPointCount() - 1).
+     * @return A configuração do ponto.
+     */
+    public SimulationConfig configOf(int point) {
+        SimulationConfig config = base;
+        for (int axis = axes.size() - 1; axis >= 0; axis--) {
+            double[] values = axisValues.get(axis);
+            config = config.with(axes.get(axis), values[point % values.length]);
+            point /= values.length;
+        }
+        return config;
+    }
+
+    /**
+     * Roda a varredura e grava uma linha CSV por execução, na ordem em que
+     * terminam: número da execução, semente, valor de cada parâmetro
+     * variado, passos executados, motivo da parada (StopReason), população
+     * final de cada espécie, duração em milissegundos e a mediana e o
+     * percentil 99 da duração de um passo (veja StepProfiler).
+     *
+     * @param steps      Passos de cada simulação (menos, se houver extinção).
+     * @param replicates Execuções (sementes) por ponto.
+     * @param seed       A semente da primeira repetição.
+     * @param threads    Quantas simulações rodam ao mesmo tempo.
+     * @param out        Onde gravar o CSV (não é fechado).
+     * @throws IOException Se a escrita falhar.
+     */
+    public void run(int steps, int replicates, long seed, int threads, Writer out) throws IOException {
+        writeHeader(out);
+        int runs = Math.multiplyExact(getPointCount(), replicates);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CompletionService<Result> completion = new ExecutorCompletionService<>(executor);
+        try {
+            int submitted = 0;
+            for (int done = 0; done < runs; done++) {
+                while (submitted < runs && submitted - done < 2 * threads) {
+                    int run = submitted++;
+                    completion.submit(() -> simulate(run, steps, replicates, seed));
+                }
+                writeResult(out, completion.take().get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Erro em uma execução da varredura", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Roda uma execução da varredura.
+     */
+    private Result simulate(int run, int steps, int replicates, long seed) {
+        Result result = new Result();
+        result.run = run;
+        result.seed = seed + run % replicates;
+        result.config = configOf(run / replicates);
+        long start = System.nanoTime();
+        Simulator simulator = new Simulator(depth, width, true, result.seed, result.config);
+        StepProfiler profiler = new StepProfiler();
+        simulator.setProfiler(profiler);
+        simulator.simulate(steps);
+        result.millis = (System.nanoTime() - start) / 1_000_000;
+        result.steps = simulator.getStep();
+        result.stopReason = simulator.getStopReason();
+        for (Species species : SPECIES) {
+            result.counts[species.ordinal()] = simulator.getCount(species);
+        }
+        result.p50 = profiler.percentile(0.50) / 1e6;
+        result.p99 = profiler.percentile(0.99) / 1e6;
+        return result;
+    }
+
+    /**
+     * Grava a linha de cabeçalho do CSV.
+     */
+    private void writeHeader(Writer out) throws IOException {
+        StringBuilder line = new StringBuilder("run,seed");
+        for (SimulationParameter parameter : axes) {
+            line.append(',').append(parameter);
+        }
+        line.append(",steps,stop");
+        for (Species species : SPECIES) {
+            line.append(',').append(species.getDisplayName());
+        }
+        line.append(",millis,step_p50_ms,step_p99_ms\n");
+        out.write(line.toString());
+        out.flush();
+    }
+
+    /**
+     * Grava a linha de uma execução.
+     */
+    private void writeResult(Writer out, Result result) throws IOException {
+        StringBuilder line = new StringBuilder();
+        line.append(result.run).append(',').append(result.seed);
+        for (SimulationParameter parameter : axes) {
+            line.append(',').append(SimulationConfig.format(parameter, result.config.get(parameter)));
+        }
+        line.append(',').append(result.steps).append(',').append(result.stopReason);
+        for (int count : result.counts) {
+            line.append(',').append(count);
+        }
+        line.append(',').append(result.millis);
+        line.append(',').append(String.format(Locale.ROOT, "%.3f,%.3f", result.p50, result.p99)).append('\n');
+        out.write(line.toString());
+        out.flush();
+    }
+}
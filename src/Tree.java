@@ -1,81 +1,114 @@
-import java.util.List;
-import java.util.Random;
-
 /**
  * Representa uma árvore no campo.
  * Árvores não se movem, mas produzem frutos periodicamente.
  * Elas servem de alimento para os Caçadores.
  * 
+ * Como não agem por conta própria, as árvores não ficam na lista de atores
+ * do simulador: ficam na camada estática do campo, como as pedras, e os
+ * frutos são calculados só quando alguém os consulta (hasFruit, pickFruit,
+ * getFruitCount). O fruto de cada passo é sorteado com o número do passo
+ * como posição no fluxo aleatório da árvore (RandomStream.doubleAt), então
+ * o resultado não depende de quando nem de quantas vezes a árvore é
+ * consultada. Passos de outono e inverno, e passos com a árvore cheia, são
+ * pulados sem sorteio.
+ * 
  * @author Grupo 05
  * @version 2025
  */
-public class Tree implements Actor {
-    // Características compartilhadas (campos estáticos).
-
-    /** O número máximo de frutos que uma árvore pode ter acumulado. */
-    private static final int MAX_FRUITS = 5;
-    /** Valor de energia que um fruto retorna. */
-    private static final int FRUIT_VALUE = 40;
-    /** A taxa de crescimento (chances de produzir um fruto a cada passo). */
-    private static final double GROWTH_RATE = 0.05;
-    /** Gerador de números aleatório */
-    private static final Random rand = new Random();
+public class Tree implements Obstacles {
+    // As características da espécie (máximo de frutos, valor de um fruto,
+    // taxa de crescimento) vêm do SimulationConfig da simulação.
 
     // Características individuais (campos de instância).
 
-    /** Quantidade atual de frutos na árvore. */
+    /** Quantidade de frutos na árvore ao fim do passo grownUntil. */
     private int fruitCount;
+    /** O último passo cujo crescimento já foi somado a fruitCount. */
+    private int grownUntil;
     /** Localização da árvore (necessário pois ela não herda de Animal). */
     private Location location;
     /**
-     * Árvores estão sempre vivas na simulação atual (a menos que sejam destruídas,
-     * o que não foi especificado).
+     * O fluxo aleatório próprio da árvore. Depois de criada a árvore ele
+     * não avança mais; só é lido por posição.
      */
-    private boolean alive;
+    private final RandomStream rand;
+    /** Os parâmetros da simulação. */
+    private final SimulationConfig config;
+    /** O relógio de estações da simulação. */
+    private final SeasonClock clock;
 
     /**
-     * Cria uma nova árvore.
+     * Cria uma nova árvore no passo atual do relógio.
      * Árvores iniciam com uma quantidade aleatória de frutos.
+     * 
+     * @param rand   O fluxo aleatório próprio da árvore.
+     * @param config Os parâmetros da simulação.
+     * @param clock  O relógio de estações da simulação.
      */
-    public Tree() {
-        this.alive = true;
-        this.fruitCount = rand.nextInt(MAX_FRUITS + 1);
+    public Tree(RandomStream rand, SimulationConfig config, SeasonClock clock) {
+        this(rand, config, clock, rand.nextInt(config.getInt(SimulationParameter.TREE_MAX_FRUITS) + 1));
     }
 
     /**
-     * O que a árvore faz a cada etapa: tenta produzir novos frutos.
-     * Como é um ator estático, ela deve se manter na mesma posição no campo
-     * atualizado.
+     * Recria uma árvore salva (veja Checkpoint), com os frutos do passo
+     * atual do relógio.
      * 
-     * @param currentField O campo atualmente ocupado.
-     * @param updatedField O campo para o qual transferir (campo atualizado).
-     * @param newActors    Uma lista para receber atores recém-criados.
+     * @param rand       O fluxo aleatório salvo da árvore.
+     * @param config     Os parâmetros da simulação.
+     * @param clock      O relógio de estações da simulação.
+     * @param fruitCount A quantidade de frutos.
      */
-    @Override
-    public void act(Field currentField, Field updatedField, List newActors) {
-        String currentSeason = Simulator.getCurrentSeason();
-        growFruit(currentSeason);
-        // Árvores não se movem, então ocupam o mesmo lugar no novo campo.
-        updatedField.place(this, location);
+    Tree(RandomStream rand, SimulationConfig config, SeasonClock clock, int fruitCount) {
+        this.rand = rand;
+        this.config = config;
+        this.clock = clock;
+        this.fruitCount = fruitCount;
+        this.grownUntil = clock.getStep();
     }
 
     /**
-     * Tenta crescer um fruto baseado na taxa de crescimento e na estação do ano
-     * (estéril durante outono e inverno e mais produtiva durante primavera).
+     * Soma os frutos crescidos desde a última consulta até o passo atual do
+     * relógio. A árvore cresce ao fim de cada passo, com a estação vista
+     * durante o passo (a do passo anterior); consultas durante um passo veem
+     * os frutos do fim do passo anterior.
      */
-    private void growFruit(String currentSeason) {
-        if (fruitCount < MAX_FRUITS) {
-            if (currentSeason.equals("summer")) {
-                if (rand.nextDouble() <= GROWTH_RATE) {
-                    fruitCount++;
-                }
+    private void grow() {
+        int now = clock.getStep();
+        int maxFruits = config.getInt(SimulationParameter.TREE_MAX_FRUITS);
+        int seasonLength = clock.getSeasonLength();
+        long year = 4L * seasonLength;
+        // O passo k usa a estação do passo k - 1.
+        long k = grownUntil + 1L;
+        while (k <= now && fruitCount < maxFruits) {
+            long seen = k - 1;
+            int season = clock.seasonOf((int) seen);
+            if (season != SeasonClock.SPRING && season != SeasonClock.SUMMER) {
+                // Estéril até a próxima primavera.
+                k = (seen / year + 1) * year + 1;
+                continue;
             }
-            if (currentSeason.equals("spring")) {
-                if (rand.nextDouble() <= GROWTH_RATE + 0.02) {
+            double growthRate = growthRate(season);
+            long seasonEnd = Math.min(now, (seen / seasonLength + 1) * seasonLength);
+            for (; k <= seasonEnd && fruitCount < maxFruits; k++) {
+                if (rand.doubleAt(k) <= growthRate) {
                     fruitCount++;
                 }
             }
         }
+        grownUntil = now;
+    }
+
+    /**
+     * Chance de crescer um fruto em um passo de uma estação (a árvore é
+     * estéril durante outono e inverno e mais produtiva durante a
+     * primavera).
+     */
+    private double growthRate(int season) {
+        double growthRate = config.get(SimulationParameter.TREE_GROWTH_RATE);
+        if (season == SeasonClock.SPRING) {
+            growthRate += config.get(SimulationParameter.TREE_SPRING_GROWTH_BONUS);
+        }
+        return growthRate;
     }
 
     /**
@@ -84,31 +117,43 @@ public class Tree implements Actor {
      * @return Um valor nutricional (energia) se houver fruto, ou 0 se não houver.
      */
     public int pickFruit() {
+        grow();
         if (fruitCount > 0) {
             fruitCount--;
-            return FRUIT_VALUE;
+            return config.getInt(SimulationParameter.TREE_FRUIT_VALUE);
         } else {
             return 0;
         }
     }
 
+    /**
+     * @return A quantidade atual de frutos na árvore.
+     */
+    int getFruitCount() {
+        grow();
+        return fruitCount;
+    }
+
+    /**
+     * @return O fluxo aleatório próprio da árvore.
+     */
+    RandomStream getRandom() {
+        return rand;
+    }
+
     /**
      * Verifica se a árvore tem frutos.
      * 
      * @return true se tiver frutos.
      */
     public boolean hasFruit() {
+        grow();
         return fruitCount > 0;
     }
 
-    /**
-     * Verifica se a árvore está ativa.
-     * 
-     * @return True se a árvore ainda existe.
-     */
     @Override
-    public boolean isAlive() {
-        return alive;
+    public Species getSpecies() {
+        return Species.TREE;
     }
 
     /**
@@ -125,7 +170,8 @@ public class Tree implements Actor {
      * 
      * @return A localização.
      */
+    @Override
     public Location getLocation() {
         return location;
     }
-}
\ No newline at end of file
+}